@@ -0,0 +1,87 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.cache.SearchQueryCache;
+import com.example.demo.model.Song;
+import com.example.demo.utils.SortUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost per request of turning the {@code search} and {@code sortBy} parameters into a
+ * specification and a sort: parsed with the precompiled pattern on a cache miss, looked up in
+ * {@link SearchQueryCache} on a hit, and compiling the pattern on every request as before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SearchExpressionParserBenchmark {
+    private static final String SEARCH = "name~love,likeCount>1000'duration<300";
+    private static final String SORT_BY = "likeCount:desc";
+
+    private final SearchFields fields = new SearchFields("songs", Map.of(
+            "name", new SearchField("name", String.class, true),
+            "likeCount", new SearchField("likeCount", long.class, true),
+            "duration", new SearchField("duration", int.class, false)),
+            1000, Duration.ofSeconds(2));
+    private final SearchQueryCache searchQueryCache = new SearchQueryCache(1000, new SimpleMeterRegistry());
+
+    @Benchmark
+    public ParsedSearch<Song> parse() {
+        return parse(SEARCH, SORT_BY);
+    }
+
+    @Benchmark
+    public ParsedSearch<Song> cachedParse() {
+        return searchQueryCache.get("song", SEARCH, SORT_BY, () -> parse(SEARCH, SORT_BY));
+    }
+
+    @Benchmark
+    public ParsedSearch<Song> compilePatternPerRequest() {
+        SongSpecificationBuilder builder = new SongSpecificationBuilder();
+
+        Pattern pattern = Pattern.compile("([,']?)(\\w+)(!:|!~|!=|>=|<=|[:~=><])(\\w+)");
+        Matcher matcher = pattern.matcher(SEARCH);
+        while (matcher.find()) {
+            String andOrLogic = matcher.group(1);
+            if (andOrLogic.equals(SearchOperator.AND_OPERATOR) || andOrLogic.equals(SearchOperator.OR_OPERATOR)) {
+                builder.with(andOrLogic, matcher.group(2), matcher.group(3), matcher.group(4), null, null);
+            } else {
+                builder.with(matcher.group(2), matcher.group(3), matcher.group(4), null, null);
+            }
+        }
+
+        Matcher sortBy = Pattern.compile("^(\\w+)(:)(asc|desc)$").matcher(SORT_BY);
+        Sort sort = sortBy.find()
+                ? Sort.by(Sort.Direction.fromString(sortBy.group(3)), sortBy.group(1))
+                : Sort.by(Sort.Direction.DESC, "likeCount");
+
+        return new ParsedSearch<>(builder.build(), sort);
+    }
+
+    // As SongServiceImpl parses on a cache miss
+    private ParsedSearch<Song> parse(String search, String sortBy) {
+        SongSpecificationBuilder builder = new SongSpecificationBuilder();
+        SearchExpressionParser.parse(search, fields).forEach(builder::with);
+        Specification<Song> specification = builder.build();
+        return new ParsedSearch<>(specification, SortUtil.resolveSortBy(sortBy, "likeCount"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens validated per second, with the key and parser built once per token type against
+ * building them for every token as before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtUtilBenchmark {
+    private static final String SECRET_KEY = Base64.getEncoder().encodeToString("a".repeat(32).getBytes());
+    private static final String REFRESH_KEY = Base64.getEncoder().encodeToString("r".repeat(32).getBytes());
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private String token;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "accessExpiryTime", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiryTime", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtUtil, "refreshKey", REFRESH_KEY);
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "https://issuer.example.com");
+        jwtUtil.init();
+
+        token = jwtUtil.generateAccessToken(User.withUsername("alice").password("secret")
+                .authorities("ROLE_USER", "GET_USER").build());
+    }
+
+    @Benchmark
+    public TokenClaims validateToken() {
+        return jwtUtil.validateToken(token, TokenType.ACCESS_TOKEN);
+    }
+
+    @Benchmark
+    public Claims validateTokenWithNewParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
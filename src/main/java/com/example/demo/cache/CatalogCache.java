@@ -0,0 +1,205 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.response.AlbumResponse;
+import com.example.demo.dto.response.ArtistResponse;
+import com.example.demo.dto.response.SongResponse;
+import com.example.demo.model.Album;
+import com.example.demo.model.Artist;
+import com.example.demo.model.Song;
+import com.example.demo.utils.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the assembled song, album and artist detail responses. Each cache is
+ * bounded by the estimated size of its entries rather than by their number, and the current
+ * estimate is published as the {@code cache.size.bytes} gauge next to the Caffeine statistics.
+ * <p>
+ * A response embeds names of related entities, so the evict methods also drop the responses that
+ * point back at the changed entity: the album and artists of a song, the artist and songs of an
+ * album.
+ */
+@Component
+public class CatalogCache {
+    private static final int OBJECT_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int STRING_BYTES = 40;
+    private static final int LIST_BYTES = 40;
+    private static final int BOXED_BYTES = 16;
+
+    private final boolean enabled;
+    private final Cache<Long, SongResponse> songs;
+    private final Cache<Long, AlbumResponse> albums;
+    private final Cache<Long, ArtistResponse> artists;
+
+    public CatalogCache(@Value("${cache.catalog.enabled:true}") boolean enabled,
+                        @Value("${cache.catalog.maximumWeight:32MB}") DataSize maximumWeight,
+                        @Value("${cache.catalog.expireAfterWrite:10m}") Duration expireAfterWrite,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.songs = build(maximumWeight, expireAfterWrite, (id, song) -> weigh(song));
+        this.albums = build(maximumWeight, expireAfterWrite, (id, album) -> weigh(album));
+        this.artists = build(maximumWeight, expireAfterWrite, (id, artist) -> weigh(artist));
+
+        monitor(meterRegistry, songs, "catalog.song");
+        monitor(meterRegistry, albums, "catalog.album");
+        monitor(meterRegistry, artists, "catalog.artist");
+    }
+
+    public SongResponse getSong(Long id, Function<Long, SongResponse> loader) {
+        return enabled ? songs.get(id, loader) : loader.apply(id);
+    }
+
+    public AlbumResponse getAlbum(Long id, Function<Long, AlbumResponse> loader) {
+        return enabled ? albums.get(id, loader) : loader.apply(id);
+    }
+
+    public ArtistResponse getArtist(Long id, Function<Long, ArtistResponse> loader) {
+        return enabled ? artists.get(id, loader) : loader.apply(id);
+    }
+
+    /**
+     * Evicts the song together with its album and artists. Related ids are read now, so call it
+     * both before and after changing the relations of a song.
+     */
+    public void evictSong(Song song) {
+        Set<Long> albumIds = new HashSet<>();
+        Set<Long> artistIds = new HashSet<>();
+
+        if (song.getAlbum() != null)
+            albumIds.add(song.getAlbum().getId());
+        if (song.getArtists() != null)
+            song.getArtists().forEach(artist -> artistIds.add(artist.getId()));
+
+        evict(Set.of(song.getId()), albumIds, artistIds);
+    }
+
+    /**
+     * Evicts the album together with its artist and songs.
+     */
+    public void evictAlbum(Album album) {
+        Set<Long> songIds = new HashSet<>();
+        Set<Long> artistIds = new HashSet<>();
+
+        if (album.getArtist() != null)
+            artistIds.add(album.getArtist().getId());
+        if (album.getSongs() != null)
+            album.getSongs().forEach(song -> songIds.add(song.getId()));
+
+        evict(songIds, Set.of(album.getId()), artistIds);
+    }
+
+    public void evictArtist(Artist artist) {
+        evict(Set.of(), Set.of(), Set.of(artist.getId()));
+    }
+
+    /**
+     * Evicts only the given songs, for changes such as like counts that no other response shows.
+     */
+    public void evictSongsById(Collection<Long> songIds) {
+        evict(Set.copyOf(songIds), Set.of(), Set.of());
+    }
+
+    public void evictArtistsById(Collection<Long> artistIds) {
+        evict(Set.of(), Set.of(), Set.copyOf(artistIds));
+    }
+
+    public void evictAll() {
+        TransactionUtil.afterCommit(() -> {
+            songs.invalidateAll();
+            albums.invalidateAll();
+            artists.invalidateAll();
+        });
+    }
+
+    private void evict(Set<Long> songIds, Set<Long> albumIds, Set<Long> artistIds) {
+        if (!enabled) {
+            return;
+        }
+
+        TransactionUtil.afterCommit(() -> {
+            songs.invalidateAll(songIds);
+            albums.invalidateAll(albumIds);
+            artists.invalidateAll(artistIds);
+        });
+    }
+
+    private static <V> Cache<Long, V> build(DataSize maximumWeight, Duration expireAfterWrite, Weigher<Long, V> weigher) {
+        return Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher(weigher)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, Cache<Long, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+
+        Gauge.builder("cache.size.bytes", cache, CatalogCache::weightedSize)
+                .tag("cache", name)
+                .description("Estimated memory held by the cached responses")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    private static double weightedSize(Cache<Long, ?> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    // Rough shallow-plus-contents estimates, only meant to bound the cache and to track trends
+
+    private static int weigh(SongResponse song) {
+        return OBJECT_BYTES + 11 * REFERENCE_BYTES
+                + sizeOf(song.getName()) + sizeOf(song.getImageUrl()) + sizeOf(song.getSongUrl())
+                + sizeOf(song.getAlbumName()) + 3 * BOXED_BYTES
+                + sizeOf(song.getGenreIds()) + sizeOf(song.getGenreNames())
+                + sizeOf(song.getArtistIds()) + sizeOf(song.getArtistNames());
+    }
+
+    private static int weigh(AlbumResponse album) {
+        return OBJECT_BYTES + 6 * REFERENCE_BYTES
+                + sizeOf(album.getName()) + sizeOf(album.getImageUrl()) + sizeOf(album.getArtistName())
+                + BOXED_BYTES + sizeOf(album.getSongIds()) + sizeOf(album.getSongNames());
+    }
+
+    private static int weigh(ArtistResponse artist) {
+        return OBJECT_BYTES + 8 * REFERENCE_BYTES
+                + sizeOf(artist.getName()) + sizeOf(artist.getBio()) + sizeOf(artist.getImageUrl())
+                + BOXED_BYTES + sizeOf(artist.getSongIds()) + sizeOf(artist.getSongNames())
+                + sizeOf(artist.getAlbumIds()) + sizeOf(artist.getAlbumNames());
+    }
+
+    private static int sizeOf(String value) {
+        return value == null ? 0 : STRING_BYTES + value.length();
+    }
+
+    private static int sizeOf(List<?> values) {
+        if (values == null) {
+            return 0;
+        }
+
+        int size = LIST_BYTES + values.size() * REFERENCE_BYTES;
+        for (Object value : values) {
+            size += value instanceof String string ? sizeOf(string) : BOXED_BYTES;
+        }
+        return size;
+    }
+}
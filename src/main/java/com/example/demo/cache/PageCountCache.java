@@ -0,0 +1,37 @@
+package com.example.demo.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Row counts behind {@code PageResponse.totalPage}, keyed by listing and filter. Totals are
+ * approximate for up to the configured TTL, in exchange for paging without a COUNT per request.
+ */
+@Component
+public class PageCountCache {
+    private final Cache<String, Long> cache;
+
+    public PageCountCache(@Value("${cache.pageCount.maximumSize:10000}") long maximumSize,
+                          @Value("${cache.pageCount.expireAfterWrite:60s}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pageCount");
+    }
+
+    public int totalPages(String key, int pageSize, LongSupplier counter) {
+        long total = cache.get(key, k -> counter.getAsLong());
+        return pageSize == 0 ? 1 : (int) Math.ceil((double) total / (double) pageSize);
+    }
+}
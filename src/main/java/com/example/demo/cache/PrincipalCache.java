@@ -0,0 +1,66 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.User;
+import com.example.demo.utils.TransactionUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of authenticated principals keyed by username, so that a bearer token does not
+ * turn into a {@code findByUsernameWithRoles} query on every request.
+ */
+@Component
+public class PrincipalCache {
+    private final boolean enabled;
+    private final Cache<String, User> cache;
+
+    public PrincipalCache(@Value("${cache.principal.enabled:true}") boolean enabled,
+                          @Value("${cache.principal.maximumSize:10000}") long maximumSize,
+                          @Value("${cache.principal.expireAfterWrite:5m}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal");
+    }
+
+    public User get(String username, Function<String, User> loader) {
+        if (!enabled) {
+            return loader.apply(username);
+        }
+        return cache.get(username, loader);
+    }
+
+    /**
+     * Evicts the user once the surrounding transaction commits.
+     */
+    public void invalidate(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+
+        TransactionUtil.afterCommit(() -> cache.invalidate(username));
+    }
+
+    /**
+     * Evicts every user once the surrounding transaction commits.
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+
+        TransactionUtil.afterCommit(cache::invalidateAll);
+    }
+}
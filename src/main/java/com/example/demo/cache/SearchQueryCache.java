@@ -0,0 +1,42 @@
+package com.example.demo.cache;
+
+import com.example.demo.repository.specification.ParsedSearch;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Parsed search expressions keyed by the raw {@code search} and {@code sortBy} strings, so a
+ * repeated search skips parsing and specification building. Clients repeat a small set of
+ * filters, a size bound is enough.
+ */
+@Component
+public class SearchQueryCache {
+    private final Cache<Key, ParsedSearch<?>> cache;
+
+    public SearchQueryCache(@Value("${cache.searchQuery.maximumSize:1000}") long maximumSize,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "searchQuery");
+    }
+
+    /**
+     * @param scope keeps the same expression apart per searched entity
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ParsedSearch<T> get(String scope, String search, String sortBy, Supplier<ParsedSearch<T>> parser) {
+        return (ParsedSearch<T>) cache.get(new Key(scope, search, sortBy), key -> parser.get());
+    }
+
+    private record Key(String scope, String search, String sortBy) {
+    }
+}
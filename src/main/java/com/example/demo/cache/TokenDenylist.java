@@ -0,0 +1,60 @@
+package com.example.demo.cache;
+
+import com.example.demo.utils.JwtUtil;
+import com.example.demo.utils.TokenType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens revoked on logout. Each entry lives exactly as long as its token would still be
+ * accepted, and there is no size bound: evicting an entry early would let a revoked token back in.
+ * Memory is bounded by the logouts within one access token lifetime.
+ */
+@Component
+public class TokenDenylist {
+    private final Cache<String, Date> revokedTokens;
+    private final JwtUtil jwtUtil;
+
+    public TokenDenylist(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new Expiry<String, Date>() {
+                    @Override
+                    public long expireAfterCreate(String token, Date expiration, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Date expiration, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Date expiration, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public void revoke(String accessToken) {
+        if (accessToken == null) {
+            return;
+        }
+        try {
+            revokedTokens.put(accessToken, jwtUtil.extractExpired(accessToken, TokenType.ACCESS_TOKEN));
+        } catch (JwtException e) {
+            // Already expired or not valid, the filter rejects it without the denylist
+        }
+    }
+
+    public boolean isRevoked(String accessToken) {
+        return revokedTokens.getIfPresent(accessToken) != null;
+    }
+}
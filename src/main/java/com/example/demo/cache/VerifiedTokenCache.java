@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+import com.example.demo.utils.TokenClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Claims of access tokens whose signature has already been verified, keyed by the SHA-256 digest
+ * of the token. An entry never outlives the token's own {@code exp} claim.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final boolean enabled;
+    private final Cache<String, TokenClaims> cache;
+
+    public VerifiedTokenCache(@Value("${cache.verifiedToken.enabled:true}") boolean enabled,
+                              @Value("${cache.verifiedToken.maximumSize:50000}") long maximumSize,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpireAtTokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verifiedToken");
+    }
+
+    public TokenClaims get(String token, Function<String, TokenClaims> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class ExpireAtTokenExpiry implements Expiry<String, TokenClaims> {
+        @Override
+        public long expireAfterCreate(String key, TokenClaims value, long currentTime) {
+            long remainingMillis = value.expiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.chart;
+
+import com.example.demo.constant.GenreName;
+
+/**
+ * One row per song and genre, {@code genre} is null for a song without genres.
+ */
+public record SongScore(Long id, long likeCount, long playCount, GenreName genre) {
+}
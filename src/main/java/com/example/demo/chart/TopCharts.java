@@ -0,0 +1,359 @@
+package com.example.demo.chart;
+
+import com.example.demo.constant.GenreName;
+import com.example.demo.dto.response.ChartSongResponse;
+import com.example.demo.model.Artist;
+import com.example.demo.model.Song;
+import com.example.demo.repository.SongRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Top songs overall and per genre, ranked by {@code likeWeight * likes + playWeight * plays} and
+ * served from immutable snapshots without touching the database.
+ * <p>
+ * The like and play count of every song is held here. Counter flushes feed their deltas in and
+ * only the charts containing a changed song are re-ranked, by merging the changed songs into the
+ * current candidates with a bounded heap. Each chart keeps twice as many candidates as it shows,
+ * so a song that loses likes can be replaced from below.
+ * <p>
+ * What deltas cannot carry, genre changes, renames and deletions, marks the charts stale and
+ * they are rebuilt from the database at most once per {@code charts.rebuildInterval}. The rebuild
+ * runs inside {@link #apply}, after the flush has written its deltas and before the next one is
+ * written, so the scores it reads never include a delta that is applied again afterwards.
+ */
+@Component
+public class TopCharts {
+    private final SongRepository songRepository;
+    private final int size;
+    private final int capacity;
+    private final long likeWeight;
+    private final long playWeight;
+    private final Duration rebuildInterval;
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    // Written under this, replaced whole by a rebuild. Like counts are also read without the lock.
+    private volatile Map<Long, SongStats> stats = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<Long, SongDetails> details = new HashMap<>();
+    private final Map<GenreName, List<Long>> genreCandidates = new EnumMap<>(GenreName.class);
+    private List<Long> globalCandidates = List.of();
+    private Instant builtAt = Instant.MIN;
+
+    private volatile List<ChartSongResponse> globalChart = List.of();
+    private volatile Map<GenreName, List<ChartSongResponse>> genreCharts = Map.of();
+
+    public TopCharts(SongRepository songRepository,
+                     @Value("${charts.size:100}") int size,
+                     @Value("${charts.likeWeight:10}") long likeWeight,
+                     @Value("${charts.playWeight:1}") long playWeight,
+                     @Value("${charts.rebuildInterval:10m}") Duration rebuildInterval) {
+        this.songRepository = songRepository;
+        this.size = size;
+        this.capacity = size * 2;
+        this.likeWeight = likeWeight;
+        this.playWeight = playWeight;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public List<ChartSongResponse> getGlobalChart() {
+        return globalChart;
+    }
+
+    public List<ChartSongResponse> getGenreChart(GenreName genre) {
+        return genreCharts.getOrDefault(genre, List.of());
+    }
+
+    /**
+     * Orders songs by like count, then id, both descending, from the counts held here, so a
+     * filter matching much of the catalog is paged without sending its ids to the database.
+     * Songs without a like since the last rebuild rank as having none. Takes no lock, so it never
+     * waits for a rebuild or a flush.
+     *
+     * @return the ids of the requested page, O(n log(offset + limit)) over the given songs
+     */
+    public List<Long> rankByLikes(long[] songIds, long offset, int limit) {
+        int window = (int) Math.min(songIds.length, offset + limit);
+        if (offset >= window) {
+            return List.of();
+        }
+
+        // Each count is read once, so a concurrent flush cannot reorder songs while they are ranked
+        Map<Long, SongStats> current = stats;
+        long[] likes = new long[songIds.length];
+        for (int i = 0; i < songIds.length; i++) {
+            SongStats song = current.get(songIds[i]);
+            likes[i] = song != null ? song.likes : 0;
+        }
+
+        LikeHeap heap = new LikeHeap(songIds, likes, window);
+        for (int i = 0; i < songIds.length; i++) {
+            heap.offer(i);
+        }
+        return heap.drain().subList((int) offset, window);
+    }
+
+    /**
+     * Call once a song's genres, name or artists change or it is deleted.
+     */
+    public void markStale() {
+        stale.set(true);
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        builtAt = Instant.now();
+        details.clear();
+
+        Map<Long, SongStats> rebuilt = new ConcurrentHashMap<>();
+        addScores(rebuilt, songRepository.findAllScores());
+        stats = rebuilt;
+
+        globalCandidates = top(stats.keySet().stream());
+        genreCandidates.clear();
+        for (GenreName genre : GenreName.values()) {
+            genreCandidates.put(genre, top(stats.keySet().stream().filter(id -> stats.get(id).genres.contains(genre))));
+        }
+
+        publish();
+    }
+
+    /**
+     * Applies like and play deltas that have already been written to the database. Called after
+     * every counter flush, one at a time.
+     */
+    public synchronized void apply(Map<Long, Long> likeDeltas, Map<Long, Long> playDeltas) {
+        if (stale.get() && builtAt.plus(rebuildInterval).isBefore(Instant.now())) {
+            // The scores read include these deltas
+            stale.set(false);
+            rebuild();
+            return;
+        }
+
+        Set<Long> changed = new HashSet<>(likeDeltas.keySet());
+        changed.addAll(playDeltas.keySet());
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        // Songs added since the last rebuild are read with the deltas already included
+        Set<Long> unknown = new HashSet<>(changed);
+        unknown.removeAll(stats.keySet());
+        if (!unknown.isEmpty()) {
+            addScores(stats, songRepository.findScoresByIds(unknown));
+        }
+
+        Set<GenreName> touchedGenres = EnumSet.noneOf(GenreName.class);
+        for (Long id : changed) {
+            SongStats song = stats.get(id);
+            if (song == null) {
+                continue;
+            }
+            if (!unknown.contains(id)) {
+                song.likes += likeDeltas.getOrDefault(id, 0L);
+                song.plays += playDeltas.getOrDefault(id, 0L);
+            }
+            touchedGenres.addAll(song.genres);
+        }
+
+        globalCandidates = top(Stream.concat(globalCandidates.stream(), changed.stream()));
+        for (GenreName genre : touchedGenres) {
+            Stream<Long> changedInGenre = changed.stream()
+                    .filter(id -> stats.containsKey(id) && stats.get(id).genres.contains(genre));
+            genreCandidates.put(genre, top(Stream.concat(genreCandidates.getOrDefault(genre, List.of()).stream(), changedInGenre)));
+        }
+
+        publish();
+    }
+
+    private void addScores(Map<Long, SongStats> target, List<SongScore> scores) {
+        for (SongScore score : scores) {
+            SongStats song = target.computeIfAbsent(score.id(), id -> new SongStats(score.likeCount(), score.playCount()));
+            if (score.genre() != null) {
+                song.genres.add(score.genre());
+            }
+        }
+    }
+
+    // Bounded min-heap: O(n log capacity) over the given ids, best first
+    private List<Long> top(Stream<Long> ids) {
+        Comparator<Long> byScore = Comparator.<Long>comparingLong(id -> stats.get(id).score()).thenComparing(id -> id);
+        PriorityQueue<Long> heap = new PriorityQueue<>(capacity + 1, byScore);
+
+        ids.distinct().filter(stats::containsKey).forEach(id -> {
+            heap.offer(id);
+            if (heap.size() > capacity) {
+                heap.poll();
+            }
+        });
+
+        List<Long> ranked = new ArrayList<>(heap);
+        ranked.sort(byScore.reversed());
+        return List.copyOf(ranked);
+    }
+
+    private void publish() {
+        Set<Long> shown = new HashSet<>(head(globalCandidates));
+        genreCandidates.values().forEach(candidates -> shown.addAll(head(candidates)));
+
+        details.keySet().retainAll(shown);
+        loadDetails(shown.stream().filter(id -> !details.containsKey(id)).toList());
+
+        Map<GenreName, List<ChartSongResponse>> charts = new EnumMap<>(GenreName.class);
+        genreCandidates.forEach((genre, candidates) -> charts.put(genre, snapshot(candidates)));
+
+        globalChart = snapshot(globalCandidates);
+        genreCharts = charts;
+    }
+
+    private void loadDetails(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        for (Song song : songRepository.findAllByIdsAndSort(ids, Sort.unsorted())) {
+            List<Artist> artists = List.copyOf(song.getArtists());
+            details.put(song.getId(), new SongDetails(song.getName(), song.getImageUrl(),
+                    artists.stream().map(Artist::getId).toList(),
+                    artists.stream().map(Artist::getName).toList()));
+        }
+    }
+
+    private List<ChartSongResponse> snapshot(List<Long> candidates) {
+        List<ChartSongResponse> chart = new ArrayList<>(size);
+
+        for (Long id : head(candidates)) {
+            SongDetails song = details.get(id);
+            if (song == null) {
+                // Deleted since the last rebuild
+                continue;
+            }
+
+            SongStats songStats = stats.get(id);
+            chart.add(ChartSongResponse.builder()
+                    .rank(chart.size() + 1)
+                    .id(id)
+                    .name(song.name())
+                    .imageUrl(song.imageUrl())
+                    .artistIds(song.artistIds())
+                    .artistNames(song.artistNames())
+                    .likeCount(songStats.likes)
+                    .playCount(songStats.plays)
+                    .build());
+        }
+
+        return List.copyOf(chart);
+    }
+
+    private List<Long> head(List<Long> candidates) {
+        return candidates.subList(0, Math.min(size, candidates.size()));
+    }
+
+    private final class SongStats {
+        private volatile long likes;
+        private long plays;
+        private final Set<GenreName> genres = EnumSet.noneOf(GenreName.class);
+
+        private SongStats(long likes, long plays) {
+            this.likes = likes;
+            this.plays = plays;
+        }
+
+        private long score() {
+            return likeWeight * likes + playWeight * plays;
+        }
+    }
+
+    // Bounded min-heap of indexes into the ranked songs, the lowest ranked at the root
+    private static final class LikeHeap {
+        private final long[] ids;
+        private final long[] likes;
+        private final int[] heap;
+        private int size;
+
+        private LikeHeap(long[] ids, long[] likes, int capacity) {
+            this.ids = ids;
+            this.likes = likes;
+            this.heap = new int[capacity];
+        }
+
+        private void offer(int song) {
+            if (size < heap.length) {
+                heap[size] = song;
+                siftUp(size++);
+            } else if (ranksAbove(song, heap[0])) {
+                heap[0] = song;
+                siftDown(0);
+            }
+        }
+
+        // Empties the heap, best first
+        private List<Long> drain() {
+            Long[] ranked = new Long[size];
+            while (size > 0) {
+                ranked[size - 1] = ids[heap[0]];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return Arrays.asList(ranked);
+        }
+
+        private boolean ranksAbove(int a, int b) {
+            return likes[a] != likes[b] ? likes[a] > likes[b] : ids[a] > ids[b];
+        }
+
+        private void siftUp(int k) {
+            while (k > 0) {
+                int parent = (k - 1) / 2;
+                if (!ranksAbove(heap[parent], heap[k])) {
+                    return;
+                }
+                swap(parent, k);
+                k = parent;
+            }
+        }
+
+        private void siftDown(int k) {
+            while (2 * k + 1 < size) {
+                int child = 2 * k + 1;
+                if (child + 1 < size && ranksAbove(heap[child], heap[child + 1])) {
+                    child++;
+                }
+                if (!ranksAbove(heap[k], heap[child])) {
+                    return;
+                }
+                swap(k, child);
+                k = child;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int song = heap[i];
+            heap[i] = heap[j];
+            heap[j] = song;
+        }
+    }
+
+    private record SongDetails(String name, String imageUrl, List<Long> artistIds, List<String> artistNames) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.configuration;
 
+import com.example.demo.cache.PrincipalCache;
 import com.example.demo.repository.UserRepository;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -22,11 +23,12 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO)
 public class AppConfig {
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByUsernameWithRoles(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Username not found"));
+        return username -> principalCache.get(username, key -> userRepository.findByUsernameWithRoles(key)
+                .orElseThrow(() -> new UsernameNotFoundException("Username not found")));
     }
 
     @Bean
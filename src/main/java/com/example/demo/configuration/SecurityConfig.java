@@ -21,7 +21,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private final PreFilter preFilter;
     private final AuthenticationProvider provider;
-    private final String[] WHITE_LIST = {"/auth/**", "/user/**"};
+    private final String[] WHITE_LIST = {"/auth/**", "/user/**", "/media/**"};
 
     @Bean
     public SecurityFilterChain securityFilterChain(@NonNull HttpSecurity http) throws Exception {
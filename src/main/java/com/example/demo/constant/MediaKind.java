@@ -0,0 +1,6 @@
+package com.example.demo.constant;
+
+public enum MediaKind {
+    IMAGE,
+    AUDIO
+}
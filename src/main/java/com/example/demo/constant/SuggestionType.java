@@ -0,0 +1,7 @@
+package com.example.demo.constant;
+
+public enum SuggestionType {
+    SONG,
+    ARTIST,
+    ALBUM
+}
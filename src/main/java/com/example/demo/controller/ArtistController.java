@@ -8,10 +8,14 @@ import com.example.demo.dto.response.ArtistResponse;
 import com.example.demo.dto.response.ResponseData;
 import com.example.demo.service.ArtistService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 
@@ -37,6 +41,20 @@ public class ArtistController {
                 artistService.getArtist(artistId));
     }
 
+    @PostMapping("/{artistId}/follow")
+    public ResponseData<Long> followArtist(@PathVariable Long artistId) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Follow artist success",
+                artistService.followArtist(artistId));
+    }
+
+    @DeleteMapping("/{artistId}/follow")
+    public ResponseData<Long> unfollowArtist(@PathVariable Long artistId) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Unfollow artist success",
+                artistService.unfollowArtist(artistId));
+    }
+
     @PutMapping("/{artistId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseData<Long> updateArtist(@PathVariable Long artistId,
@@ -54,12 +72,18 @@ public class ArtistController {
                 artistService.deleteArtist(artistId));
     }
 
-    @PostMapping("/add-my-song")
+    // The song is sent as a JSON part next to the two files
+    @PostMapping(value = "/add-my-song", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('ARTIST')")
-    public ResponseData<Long> addMySong(@Valid @RequestBody SongRequestForArtist songRequest) throws IOException {
+    public ResponseData<Long> addMySong(@Valid @RequestPart("song") SongRequestForArtist songRequest,
+                                        @RequestPart MultipartFile imageFile,
+                                        @RequestPart MultipartFile songFile) throws IOException {
         return new ResponseData<>(HttpStatus.CREATED.value(),
                 "Add song to artist success",
-                artistService.addMySong(songRequest));
+                artistService.addMySong(songRequest.toBuilder()
+                        .imageFile(imageFile)
+                        .songFile(songFile)
+                        .build()));
     }
 
     @PostMapping("/add-my-album")
@@ -79,13 +103,18 @@ public class ArtistController {
                 artistService.addMySongToMyAlbum(songId, albumId));
     }
 
-    @PutMapping("/song/{songId}")
+    @PutMapping(value = "/song/{songId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('ARTIST')")
     public ResponseData<Long> updateMySong(@PathVariable Long songId,
-                                           @Valid @RequestBody SongRequestForArtist songRequest) throws IOException {
+                                           @Valid @RequestPart("song") SongRequestForArtist songRequest,
+                                           @RequestPart MultipartFile imageFile,
+                                           @RequestPart MultipartFile songFile) throws IOException {
         return new ResponseData<>(HttpStatus.OK.value(),
                 "Update song of artist success",
-                artistService.updateMySong(songId, songRequest));
+                artistService.updateMySong(songId, songRequest.toBuilder()
+                        .imageFile(imageFile)
+                        .songFile(songFile)
+                        .build()));
     }
 
     @PutMapping("/album/{albumId}")
@@ -140,6 +169,17 @@ public class ArtistController {
                 artistService.getAllArtists(pageNo, pageSize, sortBy));
     }
 
+    @GetMapping("/all-by-cursor")
+    public ResponseData<?> getAllArtistsByCursor(
+            @RequestParam(defaultValue = "20", required = false)
+            @Min(value = 1, message = "pageSize must be between 1 and 100")
+            @Max(value = 100, message = "pageSize must be between 1 and 100") int pageSize,
+            @RequestParam(required = false) String cursor) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get all artists success",
+                artistService.getAllArtistsByCursor(pageSize, cursor));
+    }
+
     @GetMapping("/find-by-name")
     public ResponseData<?> getArtistsByName(
             @RequestParam(defaultValue = "0", required = false) int pageNo,
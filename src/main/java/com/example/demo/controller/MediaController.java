@@ -0,0 +1,37 @@
+package com.example.demo.controller;
+
+import com.example.demo.constant.MediaKind;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.storage.LocalMediaStorage;
+import com.example.demo.storage.MediaFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/media")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "media.storage", havingValue = "local")
+public class MediaController {
+    private final LocalMediaStorage localMediaStorage;
+    private final MediaFileSender mediaFileSender;
+
+    @GetMapping("/{kind}/{key}")
+    public void getMedia(@PathVariable String kind,
+                         @PathVariable String key,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = localMediaStorage.resolve(MediaKind.valueOf(kind.toUpperCase()), key)
+                .orElseThrow(() -> new ResourceNotFoundException("Media not found"));
+
+        mediaFileSender.serve(file, request, response);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.ResponseData;
+import com.example.demo.dto.response.SuggestionResponse;
+import com.example.demo.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping("/suggest")
+    public ResponseData<List<SuggestionResponse>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10", required = false) int limit) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get suggestions success",
+                searchService.suggest(prefix, limit));
+    }
+}
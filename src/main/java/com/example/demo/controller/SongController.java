@@ -1,20 +1,37 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.request.SongRequest;
+import com.example.demo.dto.response.ChartSongResponse;
 import com.example.demo.dto.response.ResponseData;
 import com.example.demo.dto.response.SongResponse;
+import com.example.demo.service.ListeningService;
 import com.example.demo.service.SongService;
+import com.example.demo.storage.MediaFileSender;
+import com.example.demo.storage.MediaStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/song")
 @RequiredArgsConstructor
 public class SongController {
     private final SongService songService;
+    private final ListeningService listeningService;
+    private final MediaStorage mediaStorage;
+    private final MediaFileSender mediaFileSender;
 
     @PostMapping("")
     @PreAuthorize("hasRole('ADMIN')")
@@ -24,6 +41,20 @@ public class SongController {
                 songService.addSong(request));
     }
 
+    @GetMapping("/charts")
+    public ResponseData<List<ChartSongResponse>> getGlobalChart() {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get chart success",
+                songService.getGlobalChart());
+    }
+
+    @GetMapping("/charts/{genre}")
+    public ResponseData<List<ChartSongResponse>> getGenreChart(@PathVariable String genre) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get chart success",
+                songService.getGenreChart(genre));
+    }
+
     @GetMapping("/{songId}")
     public ResponseData<SongResponse> getSong(@PathVariable Long songId) {
         return new ResponseData<>(HttpStatus.OK.value(),
@@ -31,6 +62,43 @@ public class SongController {
                 songService.getSong(songId));
     }
 
+    @GetMapping("/{songId}/stream")
+    public void streamSong(@PathVariable Long songId,
+                           HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
+        String songUrl = songService.getSongUrl(songId);
+        Optional<Path> file = mediaStorage.localPath(songUrl);
+
+        // Media kept on a CDN already supports range requests there
+        if (file.isEmpty()) {
+            response.sendRedirect(songUrl);
+            return;
+        }
+
+        mediaFileSender.serve(file.get(), request, response);
+    }
+
+    @PostMapping("/{songId}/play")
+    public ResponseData<Long> recordPlay(@PathVariable Long songId) {
+        return new ResponseData<>(HttpStatus.ACCEPTED.value(),
+                "Record play success",
+                listeningService.recordPlay(songId));
+    }
+
+    @PostMapping("/{songId}/like")
+    public ResponseData<Long> likeSong(@PathVariable Long songId) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Like song success",
+                songService.likeSong(songId));
+    }
+
+    @DeleteMapping("/{songId}/like")
+    public ResponseData<Long> unlikeSong(@PathVariable Long songId) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Unlike song success",
+                songService.unlikeSong(songId));
+    }
+
     @PutMapping("/{songId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseData<Long> updateSong(@PathVariable Long songId,
@@ -58,6 +126,17 @@ public class SongController {
                 songService.getAllSongs(pageNo, pageSize, sortBy));
     }
 
+    @GetMapping("/all-by-cursor")
+    public ResponseData<?> getAllSongsByCursor(
+            @RequestParam(defaultValue = "20", required = false)
+            @Min(value = 1, message = "pageSize must be between 1 and 100")
+            @Max(value = 100, message = "pageSize must be between 1 and 100") int pageSize,
+            @RequestParam(required = false) String cursor) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get all songs success",
+                songService.getAllSongsByCursor(pageSize, cursor));
+    }
+
     @GetMapping("/find-by-name")
     public ResponseData<?> getSongsByName(
             @RequestParam(defaultValue = "0", required = false) int pageNo,
@@ -69,6 +148,17 @@ public class SongController {
                 songService.getSongsByName(pageNo, pageSize, sortBy, songName));
     }
 
+    @GetMapping("/find-by-name/faceted")
+    public ResponseData<?> getSongsByNameWithFacets(
+            @RequestParam(defaultValue = "0", required = false) int pageNo,
+            @RequestParam(defaultValue = "20", required = false) int pageSize,
+            @RequestParam(defaultValue = "likeCount:desc", required = false) String sortBy,
+            @RequestParam String songName) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get songs by name success",
+                songService.getSongsByNameWithFacets(pageNo, pageSize, sortBy, songName));
+    }
+
     @GetMapping("/find-by-genre")
     public ResponseData<?> getSongsByGenre(
             @RequestParam(defaultValue = "0", required = false) int pageNo,
@@ -80,6 +170,18 @@ public class SongController {
                 songService.getSongsByGenre(pageNo, pageSize, sortBy, genreId));
     }
 
+    @GetMapping("/by-genres")
+    public ResponseData<?> getSongsByGenres(
+            @RequestParam(defaultValue = "0", required = false) int pageNo,
+            @RequestParam(defaultValue = "20", required = false) int pageSize,
+            @RequestParam(required = false) Set<String> all,
+            @RequestParam(required = false) Set<String> any,
+            @RequestParam(required = false) Set<String> none) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Get songs by genres success",
+                songService.getSongsByGenres(pageNo, pageSize, all, any, none));
+    }
+
     @GetMapping("/specification")
     public ResponseData<?> sortAndSpecificationSearch(
             @RequestParam(defaultValue = "0", required = false) int pageNo,
@@ -90,4 +192,15 @@ public class SongController {
                 "Specification Search",
                 songService.sortAndSpecificationSearch(pageNo, pageSize, sortBy, search));
     }
+
+    @GetMapping("/specification/faceted")
+    public ResponseData<?> sortAndSpecificationSearchWithFacets(
+            @RequestParam(defaultValue = "0", required = false) int pageNo,
+            @RequestParam(defaultValue = "10", required = false) int pageSize,
+            @RequestParam(defaultValue = "likeCount:desc", required = false) String sortBy,
+            @RequestParam(defaultValue = "id!=0", required = false) String search) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "Specification Search",
+                songService.sortAndSpecificationSearchWithFacets(pageNo, pageSize, sortBy, search));
+    }
 }
@@ -9,6 +9,8 @@ import com.example.demo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -75,6 +77,18 @@ public class UserController {
                 userService.getAllUsers(pageNo, pageSize, sortBy));
     }
 
+    @GetMapping("/all-by-cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseData<?> getAllUserByCursor(
+            @RequestParam(defaultValue = "20", required = false)
+            @Min(value = 1, message = "pageSize must be between 1 and 100")
+            @Max(value = 100, message = "pageSize must be between 1 and 100") int pageSize,
+            @RequestParam(required = false) String cursor) {
+        return new ResponseData<>(HttpStatus.OK.value(),
+                "All users",
+                userService.getAllUsersByCursor(pageSize, cursor));
+    }
+
     @PutMapping("/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseData<Long> updateUser(@PathVariable long userId,
@@ -0,0 +1,44 @@
+package com.example.demo.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-id deltas waiting to be added to a counter column. Each id gets its own {@link LongAdder},
+ * so concurrent likes on one hot song spread over the adder's cells instead of queueing on a lock.
+ */
+public class CounterBuffer {
+    private final ConcurrentHashMap<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+
+    public void add(long id, long delta) {
+        deltas.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Takes the accumulated non-zero deltas and resets them. Adders stay in the buffer: an add may
+     * still hold one it looked up before a removal, so removing it would lose that increment.
+     * {@link LongAdder#sumThenReset()} swaps each cell with zero, so adds racing the drain land in
+     * this or the next one. The buffer holds one adder per id ever changed, at most the catalog.
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> drained = new HashMap<>();
+
+        deltas.forEach((id, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(id, delta);
+            }
+        });
+
+        return drained;
+    }
+
+    /**
+     * @return the number of ids with a delta waiting to be drained
+     */
+    public long size() {
+        return deltas.values().stream().filter(adder -> adder.sum() != 0).count();
+    }
+}
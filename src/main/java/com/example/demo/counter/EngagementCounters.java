@@ -0,0 +1,108 @@
+package com.example.demo.counter;
+
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.chart.TopCharts;
+import com.example.demo.repository.EngagementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces like, play and follow deltas in memory and adds them to {@code song.like_count},
+ * {@code song.play_count} and {@code artist.followers} on a fixed delay, one UPDATE per changed
+ * row. Counts, and the sorts and charts built on them, trail the real value by up to one flush
+ * interval.
+ */
+@Slf4j
+@Component
+public class EngagementCounters {
+    private final EngagementRepository engagementRepository;
+    private final CatalogCache catalogCache;
+    private final TopCharts topCharts;
+    private final CounterBuffer songLikes = new CounterBuffer();
+    private final CounterBuffer songPlays = new CounterBuffer();
+    private final CounterBuffer artistFollowers = new CounterBuffer();
+    private final Counter flushedRows;
+
+    public EngagementCounters(EngagementRepository engagementRepository,
+                              CatalogCache catalogCache,
+                              TopCharts topCharts,
+                              MeterRegistry meterRegistry) {
+        this.engagementRepository = engagementRepository;
+        this.catalogCache = catalogCache;
+        this.topCharts = topCharts;
+        this.flushedRows = Counter.builder("engagement.counter.flushed")
+                .description("Counter rows updated by the periodic flush")
+                .register(meterRegistry);
+
+        Gauge.builder("engagement.counter.pending", songLikes, CounterBuffer::size)
+                .tag("counter", "songLikes")
+                .description("Ids with deltas waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder("engagement.counter.pending", songPlays, CounterBuffer::size)
+                .tag("counter", "songPlays")
+                .description("Ids with deltas waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder("engagement.counter.pending", artistFollowers, CounterBuffer::size)
+                .tag("counter", "artistFollowers")
+                .description("Ids with deltas waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    public void addLikes(long songId, long delta) {
+        songLikes.add(songId, delta);
+    }
+
+    public void addPlays(long songId, long delta) {
+        songPlays.add(songId, delta);
+    }
+
+    public void addFollowers(long artistId, long delta) {
+        artistFollowers.add(artistId, delta);
+    }
+
+    // Serialized, so the charts see each write followed by its deltas before the next write
+    @Scheduled(fixedDelayString = "${counter.flushInterval:PT5S}")
+    public synchronized void flush() {
+        Map<Long, Long> likes = flush(songLikes, engagementRepository::addLikeCounts);
+        Map<Long, Long> plays = flush(songPlays, engagementRepository::addPlayCounts);
+        Map<Long, Long> followers = flush(artistFollowers, engagementRepository::addFollowerCounts);
+
+        catalogCache.evictSongsById(likes.keySet());
+        catalogCache.evictArtistsById(followers.keySet());
+        topCharts.apply(likes, plays);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * @return the deltas written, empty when there were none or the write failed
+     */
+    private Map<Long, Long> flush(CounterBuffer buffer, Consumer<Map<Long, Long>> writer) {
+        Map<Long, Long> deltas = buffer.drain();
+        if (deltas.isEmpty()) {
+            return deltas;
+        }
+
+        try {
+            writer.accept(deltas);
+            flushedRows.increment(deltas.size());
+            return deltas;
+        } catch (RuntimeException e) {
+            // Put the deltas back so the next flush retries them
+            deltas.forEach(buffer::add);
+            log.error("Failed to flush {} counter deltas", deltas.size(), e);
+            return Map.of();
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.example.demo.dto.request;
 
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 @Getter
 @Builder
+@Jacksonized
 public class AlbumRequest {
     private String name;
 }
@@ -3,9 +3,11 @@ package com.example.demo.dto.request;
 import com.example.demo.constant.GenreName;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 
 @Getter
 @Builder
+@Jacksonized
 public class GenreRequest {
     private GenreName name;
 }
@@ -5,12 +5,14 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.extern.jackson.Jacksonized;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Set;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
+@Jacksonized
 public class SongRequestForArtist {
     @NotBlank(message = "Last name can not be blank!")
     private String name;
@@ -0,0 +1,20 @@
+package com.example.demo.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Getter
+@Builder
+public class ChartSongResponse implements Serializable {
+    private int rank;
+    private Long id;
+    private String name;
+    private String imageUrl;
+    private List<Long> artistIds;
+    private List<String> artistNames;
+    private long likeCount;
+    private long playCount;
+}
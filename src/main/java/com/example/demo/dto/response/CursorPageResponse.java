@@ -0,0 +1,14 @@
+package com.example.demo.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+@Getter
+@Builder
+public class CursorPageResponse<T> implements Serializable {
+    private int pageSize;
+    private String nextCursor;
+    private T items;
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+@Getter
+@Builder
+public class FacetCountResponse implements Serializable {
+    private Long id;
+    private String name;
+    private int count;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+@Getter
+@Builder
+public class FacetedPageResponse<T> implements Serializable {
+    private int pageNo;
+    private int pageSize;
+    private int totalPage;
+    private T items;
+    private SongFacetsResponse facets;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.constant.GenreName;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+public class SongFacetsResponse implements Serializable {
+    private Map<GenreName, Integer> genres;
+    private List<FacetCountResponse> albums;
+    private List<FacetCountResponse> artists;
+}
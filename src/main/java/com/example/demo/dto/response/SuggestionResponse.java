@@ -0,0 +1,15 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.constant.SuggestionType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+@Getter
+@Builder
+public class SuggestionResponse implements Serializable {
+    private SuggestionType type;
+    private Long id;
+    private String name;
+}
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.Date;
@@ -33,6 +34,14 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.BAD_REQUEST, message, request);
     }
 
+    // Constraints on request parameters, such as @Min and @Max on a page size
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleHandlerMethodValidationException(HandlerMethodValidationException e, WebRequest request) {
+        String message = e.getAllErrors().get(0).getDefaultMessage();
+        return createErrorResponse(HttpStatus.BAD_REQUEST, message, request);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleIllegalArgumentException(IllegalArgumentException e, WebRequest request) {
@@ -69,6 +78,12 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.CONFLICT, e.getMessage(), request);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyRequestsException(TooManyRequestsException e, WebRequest request) {
+        return createErrorResponse(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), request);
+    }
+
     @ExceptionHandler(SQLIntegrityConstraintViolationException.class)
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleSQLIntegrityConstraintViolationException(SQLIntegrityConstraintViolationException e,
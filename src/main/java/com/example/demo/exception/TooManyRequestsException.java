@@ -0,0 +1,19 @@
+package com.example.demo.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException() {
+        super();
+    }
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public TooManyRequestsException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.demo.filter;
 
+import com.example.demo.cache.TokenDenylist;
+import com.example.demo.cache.VerifiedTokenCache;
 import com.example.demo.exception.ErrorResponse;
 import com.example.demo.utils.JwtUtil;
+import com.example.demo.utils.TokenClaims;
 import com.example.demo.utils.TokenType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.ExpiredJwtException;
@@ -13,9 +16,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,13 +31,22 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class PreFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenDenylist tokenDenylist;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    // When enabled, the principal is built from the token's subject and scope claims instead of
+    // being reloaded from the database. Role changes then take effect when the token is reissued.
+    @Value("${jwt.claimsOnly:false}")
+    private boolean claimsOnly;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -48,18 +63,22 @@ public class PreFilter extends OncePerRequestFilter {
         try {
 
             final String token = authorization.substring("Bearer ".length());
-            final String username = jwtUtil.extractUsername(token, TokenType.ACCESS_TOKEN);
-
-            if (StringUtils.isNotEmpty(username) && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtUtil.isValidToken(token, TokenType.ACCESS_TOKEN, userDetails)) {
-                    SecurityContext context = SecurityContextHolder.createEmptyContext();
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails,
-                            null,
-                            userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    context.setAuthentication(authentication);
-                    SecurityContextHolder.setContext(context);
+
+            if (tokenDenylist.isRevoked(token)) {
+                handleSecurityException(response, request, "Token is revoked");
+                return;
+            }
+
+            // Signature and expiry are verified once per token, repeated tokens are served from the cache
+            TokenClaims tokenClaims = verifiedTokenCache.get(token,
+                    key -> jwtUtil.validateToken(key, TokenType.ACCESS_TOKEN));
+
+            if (StringUtils.isNotEmpty(tokenClaims.username())
+                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (claimsOnly) {
+                    authenticateFromClaims(request, tokenClaims);
+                } else {
+                    authenticateFromUserDetails(request, tokenClaims);
                 }
             }
 
@@ -74,6 +93,37 @@ public class PreFilter extends OncePerRequestFilter {
         }
     }
 
+    private void authenticateFromUserDetails(HttpServletRequest request, TokenClaims tokenClaims) {
+        UserDetails userDetails = userDetailsService.loadUserByUsername(tokenClaims.username());
+        if (tokenClaims.username().equals(userDetails.getUsername())) {
+            setAuthentication(request, new UsernamePasswordAuthenticationToken(userDetails,
+                    null,
+                    userDetails.getAuthorities()));
+        }
+    }
+
+    private void authenticateFromClaims(HttpServletRequest request, TokenClaims tokenClaims) {
+        setAuthentication(request, new UsernamePasswordAuthenticationToken(tokenClaims.username(),
+                null,
+                toAuthorities(tokenClaims.scope())));
+    }
+
+    private void setAuthentication(HttpServletRequest request, UsernamePasswordAuthenticationToken authentication) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
+
+    private List<GrantedAuthority> toAuthorities(String scope) {
+        if (StringUtils.isBlank(scope)) {
+            return List.of();
+        }
+        return Arrays.stream(scope.split(" "))
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
     private void handleSecurityException(HttpServletResponse response,
                                          HttpServletRequest request,
                                          String message) throws IOException {
@@ -0,0 +1,233 @@
+package com.example.demo.index;
+
+import com.example.demo.chart.TopCharts;
+import com.example.demo.constant.GenreName;
+import com.example.demo.dto.response.SongFacetsResponse;
+import com.example.demo.model.Album;
+import com.example.demo.model.Artist;
+import com.example.demo.model.Genre;
+import com.example.demo.model.Song;
+import com.example.demo.repository.AlbumRepository;
+import com.example.demo.repository.ArtistRepository;
+import com.example.demo.repository.SongRepository;
+import com.example.demo.utils.TransactionUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Name indexes of songs, artists and albums behind the find-by-name endpoints, the genre
+ * bitmaps behind the multi-genre filter and the song facets behind the faceted searches. Built
+ * from the database at startup and kept current by the services, which index a change once its
+ * transaction commits. Each change also marks the autocomplete suggestions and the top charts
+ * stale.
+ */
+@Slf4j
+@Component
+public class CatalogIndex {
+    private final SongRepository songRepository;
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final CatalogSuggestions catalogSuggestions;
+    private final TopCharts topCharts;
+    private final int facetSize;
+
+    private final NameIndex songs = new NameIndex();
+    private final NameIndex artists = new NameIndex();
+    private final NameIndex albums = new NameIndex();
+    private final GenreIndex songGenres = new GenreIndex();
+    private final FacetIndex songFacets = new FacetIndex();
+
+    public CatalogIndex(SongRepository songRepository,
+                        ArtistRepository artistRepository,
+                        AlbumRepository albumRepository,
+                        CatalogSuggestions catalogSuggestions,
+                        TopCharts topCharts,
+                        @Value("${search.facets.size:10}") int facetSize,
+                        MeterRegistry meterRegistry) {
+        this.songRepository = songRepository;
+        this.artistRepository = artistRepository;
+        this.albumRepository = albumRepository;
+        this.catalogSuggestions = catalogSuggestions;
+        this.topCharts = topCharts;
+        this.facetSize = facetSize;
+
+        monitor(meterRegistry, songs, "song");
+        monitor(meterRegistry, artists, "artist");
+        monitor(meterRegistry, albums, "album");
+        Gauge.builder("search.index.size", songGenres, GenreIndex::size)
+                .tag("index", "genre")
+                .description("Songs held in the in-memory genre index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<IndexedName> artistNames = artistRepository.findAllNames();
+        List<IndexedName> albumNames = albumRepository.findAllNames();
+        Map<Long, Set<GenreName>> genresBySong = groupGenres(songRepository.findAllGenres());
+
+        load(songs, songRepository.findAllNames());
+        load(artists, artistNames);
+        load(albums, albumNames);
+
+        songGenres.load(genresBySong);
+
+        loadFacets(songRepository.findAllRelations(), genresBySong, artistNames, albumNames);
+        log.info("Indexed {} songs, {} artists and {} albums", songs.size(), artists.size(), albums.size());
+    }
+
+    /**
+     * @return ids of every matching song, unordered, so the caller's sort and paging apply to the
+     * whole match set
+     */
+    public List<Long> searchSongs(String name) {
+        return List.copyOf(songs.matches(name));
+    }
+
+    public List<Long> searchArtists(String name) {
+        return List.copyOf(artists.matches(name));
+    }
+
+    public List<Long> searchAlbums(String name) {
+        return List.copyOf(albums.matches(name));
+    }
+
+    /**
+     * @return ids of the songs matching the genre filter, in ascending order
+     */
+    public long[] matchSongGenres(Set<GenreName> all, Set<GenreName> any, Set<GenreName> none) {
+        return songGenres.match(all, any, none);
+    }
+
+    /**
+     * @return hits per genre, album and artist among the given songs
+     */
+    public SongFacetsResponse countSongFacets(Collection<Long> songIds) {
+        return songFacets.count(songIds, facetSize);
+    }
+
+    /**
+     * Call once the genres, artists and album of the song are set.
+     */
+    public void indexSong(Song song) {
+        Long id = song.getId();
+        String name = song.getName();
+        Set<GenreName> genres = song.getGenres().stream()
+                .map(Genre::getName)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(GenreName.class)));
+        Long albumId = song.getAlbum() != null ? song.getAlbum().getId() : null;
+        List<Long> artistIds = song.getArtists().stream()
+                .map(Artist::getId)
+                .toList();
+        update(() -> {
+            songs.put(id, name);
+            songGenres.put(id, genres);
+            songFacets.putSong(id, albumId, artistIds, genres);
+        });
+    }
+
+    public void removeSong(Long id) {
+        update(() -> {
+            songs.remove(id);
+            songGenres.remove(id);
+            songFacets.removeSong(id);
+        });
+    }
+
+    public void indexArtist(Artist artist) {
+        Long id = artist.getId();
+        String name = artist.getName();
+        update(() -> {
+            artists.put(id, name);
+            songFacets.putArtist(id, name);
+        });
+    }
+
+    public void removeArtist(Long id) {
+        update(() -> {
+            artists.remove(id);
+            songFacets.removeArtist(id);
+        });
+    }
+
+    public void indexAlbum(Album album) {
+        Long id = album.getId();
+        String name = album.getName();
+        update(() -> {
+            albums.put(id, name);
+            songFacets.putAlbum(id, name);
+        });
+    }
+
+    public void removeAlbum(Long id) {
+        update(() -> {
+            albums.remove(id);
+            songFacets.removeAlbum(id);
+        });
+    }
+
+    private void update(Runnable change) {
+        TransactionUtil.afterCommit(() -> {
+            change.run();
+            catalogSuggestions.markStale();
+            topCharts.markStale();
+        });
+    }
+
+    private static void load(NameIndex index, List<IndexedName> names) {
+        index.clear();
+        names.forEach(name -> index.put(name.id(), name.name()));
+    }
+
+    private static Map<Long, Set<GenreName>> groupGenres(List<SongGenre> memberships) {
+        Map<Long, Set<GenreName>> genresBySong = new HashMap<>();
+        for (SongGenre membership : memberships) {
+            Set<GenreName> genres = genresBySong.computeIfAbsent(membership.songId(), id -> EnumSet.noneOf(GenreName.class));
+            if (membership.genre() != null) {
+                genres.add(membership.genre());
+            }
+        }
+        return genresBySong;
+    }
+
+    private void loadFacets(List<SongRelation> relations, Map<Long, Set<GenreName>> genresBySong,
+                            List<IndexedName> artistNames, List<IndexedName> albumNames) {
+        Map<Long, Long> albumBySong = new HashMap<>();
+        Map<Long, List<Long>> artistsBySong = new HashMap<>();
+        for (SongRelation relation : relations) {
+            List<Long> artistIds = artistsBySong.computeIfAbsent(relation.songId(), id -> new ArrayList<>());
+            if (relation.albumId() != null) {
+                albumBySong.put(relation.songId(), relation.albumId());
+            }
+            if (relation.artistId() != null) {
+                artistIds.add(relation.artistId());
+            }
+        }
+
+        songFacets.clear();
+        artistNames.forEach(artist -> songFacets.putArtist(artist.id(), artist.name()));
+        albumNames.forEach(album -> songFacets.putAlbum(album.id(), album.name()));
+        artistsBySong.forEach((songId, artistIds) -> songFacets.putSong(songId, albumBySong.get(songId), artistIds,
+                genresBySong.getOrDefault(songId, Set.of())));
+    }
+
+    private static void monitor(MeterRegistry meterRegistry, NameIndex index, String type) {
+        Gauge.builder("search.index.size", index, NameIndex::size)
+                .tag("index", type)
+                .description("Names held in the in-memory search index")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.index;
+
+import com.example.demo.constant.SuggestionType;
+import com.example.demo.dto.response.SuggestionResponse;
+import com.example.demo.repository.AlbumRepository;
+import com.example.demo.repository.ArtistRepository;
+import com.example.demo.repository.SongRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Autocomplete over song, artist and album names, weighted by like count, followers and the
+ * like count of the album's songs respectively.
+ * <p>
+ * The index is immutable and swapped whole, so a rebuild reads every name. Catalog changes are
+ * only counted, and a refresh rebuilds once {@code search.suggest.rebuildAfterChanges} of them
+ * have piled up. Weights move with every counter flush, so the index is also rebuilt once it is
+ * older than {@code search.suggest.maxAge}, which bounds how long any change goes unseen.
+ */
+@Component
+public class CatalogSuggestions {
+    private final SongRepository songRepository;
+    private final ArtistRepository artistRepository;
+    private final AlbumRepository albumRepository;
+    private final Duration maxAge;
+    private final int rebuildAfterChanges;
+
+    private final AtomicInteger changes = new AtomicInteger();
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+    private volatile Instant builtAt = Instant.MIN;
+
+    public CatalogSuggestions(SongRepository songRepository,
+                              ArtistRepository artistRepository,
+                              AlbumRepository albumRepository,
+                              @Value("${search.suggest.maxAge:10m}") Duration maxAge,
+                              @Value("${search.suggest.rebuildAfterChanges:100}") int rebuildAfterChanges,
+                              MeterRegistry meterRegistry) {
+        this.songRepository = songRepository;
+        this.artistRepository = artistRepository;
+        this.albumRepository = albumRepository;
+        this.maxAge = maxAge;
+        this.rebuildAfterChanges = rebuildAfterChanges;
+
+        Gauge.builder("search.suggest.size", this, suggestions -> suggestions.index.size())
+                .description("Names held in the autocomplete index")
+                .register(meterRegistry);
+    }
+
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit);
+    }
+
+    public void markStale() {
+        changes.incrementAndGet();
+    }
+
+    // The first run waits a full interval, the index was just built at startup
+    @Scheduled(initialDelayString = "${search.suggest.refreshInterval:PT30S}",
+            fixedDelayString = "${search.suggest.refreshInterval:PT30S}")
+    public void refresh() {
+        boolean expired = builtAt.plus(maxAge).isBefore(Instant.now());
+        if (changes.get() >= rebuildAfterChanges || expired) {
+            rebuild();
+        }
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        changes.set(0);
+
+        Map<SuggestionType, List<WeightedName>> names = new EnumMap<>(SuggestionType.class);
+        names.put(SuggestionType.SONG, songRepository.findAllWeightedNames());
+        names.put(SuggestionType.ARTIST, artistRepository.findAllWeightedNames());
+        names.put(SuggestionType.ALBUM, albumRepository.findAllWeightedNames());
+
+        index = SuggestionIndex.build(names);
+        builtAt = Instant.now();
+    }
+}
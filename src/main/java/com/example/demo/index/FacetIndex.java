@@ -0,0 +1,193 @@
+package com.example.demo.index;
+
+import com.example.demo.constant.GenreName;
+import com.example.demo.dto.response.FacetCountResponse;
+import com.example.demo.dto.response.SongFacetsResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Album, artists and genres of every song, for counting search hits per facet in one pass over
+ * the matching ids.
+ * <p>
+ * Genres are a bit mask per song. Albums and artists are numbered densely as they are first seen,
+ * so a count is an increment in a plain array rather than a map update. Their names are kept here
+ * too, which labels the counts without a query.
+ */
+public class FacetIndex {
+    private static final GenreName[] GENRES = GenreName.values();
+    private static final int NO_ALBUM = -1;
+
+    private final Map<Long, SongFacet> songs = new ConcurrentHashMap<>();
+    private final Slots albums = new Slots();
+    private final Slots artists = new Slots();
+
+    public void putSong(long songId, Long albumId, Collection<Long> artistIds, Set<GenreName> genres) {
+        int mask = 0;
+        for (GenreName genre : genres) {
+            mask |= 1 << genre.ordinal();
+        }
+
+        int albumSlot = albumId != null ? albums.slotOf(albumId) : NO_ALBUM;
+        int[] artistSlots = artistIds.stream().mapToInt(artists::slotOf).toArray();
+
+        songs.put(songId, new SongFacet(albumSlot, artistSlots, mask));
+    }
+
+    public void removeSong(long songId) {
+        songs.remove(songId);
+    }
+
+    public void putAlbum(long albumId, String name) {
+        albums.name(albumId, name);
+    }
+
+    public void removeAlbum(long albumId) {
+        albums.remove(albumId);
+    }
+
+    public void putArtist(long artistId, String name) {
+        artists.name(artistId, name);
+    }
+
+    public void removeArtist(long artistId) {
+        artists.remove(artistId);
+    }
+
+    public void clear() {
+        songs.clear();
+        albums.clear();
+        artists.clear();
+    }
+
+    /**
+     * @param size how many albums and artists to return, those with the most hits first
+     */
+    public SongFacetsResponse count(Collection<Long> songIds, int size) {
+        int[] genreCounts = new int[GENRES.length];
+        // Slots handed out after this point belong to songs added meanwhile and are skipped
+        int[] albumCounts = new int[albums.size()];
+        int[] artistCounts = new int[artists.size()];
+
+        for (Long songId : songIds) {
+            SongFacet song = songs.get(songId);
+            if (song == null) {
+                continue;
+            }
+
+            for (int mask = song.genres(); mask != 0; mask &= mask - 1) {
+                genreCounts[Integer.numberOfTrailingZeros(mask)]++;
+            }
+            if (song.albumSlot() != NO_ALBUM && song.albumSlot() < albumCounts.length) {
+                albumCounts[song.albumSlot()]++;
+            }
+            for (int artistSlot : song.artistSlots()) {
+                if (artistSlot < artistCounts.length) {
+                    artistCounts[artistSlot]++;
+                }
+            }
+        }
+
+        Map<GenreName, Integer> genres = new EnumMap<>(GenreName.class);
+        for (int i = 0; i < GENRES.length; i++) {
+            if (genreCounts[i] > 0) {
+                genres.put(GENRES[i], genreCounts[i]);
+            }
+        }
+
+        return SongFacetsResponse.builder()
+                .genres(genres)
+                .albums(albums.top(albumCounts, size))
+                .artists(artists.top(artistCounts, size))
+                .build();
+    }
+
+    private record SongFacet(int albumSlot, int[] artistSlots, int genres) {
+    }
+
+    /**
+     * Dense numbering of album or artist ids. Slots are never reused, a removed id only loses its
+     * name, and a rebuild starts the numbering over.
+     */
+    private static final class Slots {
+        private final Map<Long, Integer> slots = new ConcurrentHashMap<>();
+        private final Map<Long, String> names = new ConcurrentHashMap<>();
+        private volatile long[] ids = new long[1024];
+        private volatile int size;
+
+        synchronized int slotOf(long id) {
+            Integer slot = slots.get(id);
+            if (slot != null) {
+                return slot;
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = id;
+            slots.put(id, size);
+            // Publishes the id written above to readers of size
+            return size++;
+        }
+
+        void name(long id, String name) {
+            slotOf(id);
+            names.put(id, name);
+        }
+
+        void remove(long id) {
+            names.remove(id);
+        }
+
+        synchronized void clear() {
+            slots.clear();
+            names.clear();
+            ids = new long[1024];
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        // Bounded min-heap over the slots with hits, most hits first and the lower id on ties
+        List<FacetCountResponse> top(int[] counts, int limit) {
+            long[] slotIds = ids;
+            Comparator<Integer> byCount = Comparator.<Integer>comparingInt(slot -> counts[slot])
+                    .thenComparing(slot -> slotIds[slot], Comparator.reverseOrder());
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, byCount);
+
+            for (int slot = 0; slot < counts.length; slot++) {
+                // Skips albums and artists deleted since their songs were indexed
+                if (counts[slot] > 0 && names.containsKey(slotIds[slot])) {
+                    heap.offer(slot);
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            }
+
+            List<FacetCountResponse> top = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                int slot = heap.poll();
+                top.add(FacetCountResponse.builder()
+                        .id(slotIds[slot])
+                        .name(names.get(slotIds[slot]))
+                        .count(counts[slot])
+                        .build());
+            }
+            Collections.reverse(top);
+            return top;
+        }
+    }
+}
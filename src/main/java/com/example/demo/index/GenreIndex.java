@@ -0,0 +1,135 @@
+package com.example.demo.index;
+
+import com.example.demo.constant.GenreName;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Song ids of each genre as Roaring bitmaps, so filters over several genres are evaluated with
+ * word-wide AND, OR and AND NOT over compressed sets instead of joins on {@code song_genres}.
+ * <p>
+ * The bitmaps are not thread-safe, so they are copied on write: writes are serialized, copy the
+ * bitmaps they change and publish a new snapshot, reads evaluate the current snapshot without a
+ * lock and never modify it. Writes are single catalog changes, a full load builds one snapshot.
+ */
+public class GenreIndex {
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    public synchronized void put(long songId, Collection<GenreName> genres) {
+        Snapshot current = snapshot;
+
+        Map<GenreName, Roaring64NavigableMap> songsByGenre = new EnumMap<>(current.songsByGenre());
+        current.songsByGenre().forEach((genre, genreSongs) -> {
+            boolean member = genres.contains(genre);
+            if (member != genreSongs.contains(songId)) {
+                Roaring64NavigableMap copy = copy(genreSongs);
+                if (member) {
+                    copy.addLong(songId);
+                } else {
+                    copy.removeLong(songId);
+                }
+                songsByGenre.put(genre, copy);
+            }
+        });
+
+        Roaring64NavigableMap songs = current.songs();
+        if (!songs.contains(songId)) {
+            songs = copy(songs);
+            songs.addLong(songId);
+        }
+
+        snapshot = Snapshot.of(songs, songsByGenre);
+    }
+
+    public synchronized void remove(long songId) {
+        Snapshot current = snapshot;
+        if (!current.songs().contains(songId)) {
+            return;
+        }
+
+        Map<GenreName, Roaring64NavigableMap> songsByGenre = new EnumMap<>(current.songsByGenre());
+        current.songsByGenre().forEach((genre, genreSongs) -> {
+            if (genreSongs.contains(songId)) {
+                Roaring64NavigableMap copy = copy(genreSongs);
+                copy.removeLong(songId);
+                songsByGenre.put(genre, copy);
+            }
+        });
+
+        Roaring64NavigableMap songs = copy(current.songs());
+        songs.removeLong(songId);
+
+        snapshot = Snapshot.of(songs, songsByGenre);
+    }
+
+    /**
+     * Replaces the whole index with the given songs and their genres.
+     */
+    public synchronized void load(Map<Long, Set<GenreName>> genresBySong) {
+        Snapshot empty = Snapshot.empty();
+        Roaring64NavigableMap songs = empty.songs();
+        Map<GenreName, Roaring64NavigableMap> songsByGenre = empty.songsByGenre();
+
+        genresBySong.forEach((songId, genres) -> {
+            songs.addLong(songId);
+            genres.forEach(genre -> songsByGenre.get(genre).addLong(songId));
+        });
+
+        snapshot = Snapshot.of(songs, songsByGenre);
+    }
+
+    /**
+     * @param all  genres a song must have every one of
+     * @param any  genres a song must have at least one of, ignored when empty
+     * @param none genres a song must have none of
+     * @return ids of the matching songs in ascending order
+     */
+    public long[] match(Collection<GenreName> all, Collection<GenreName> any, Collection<GenreName> none) {
+        Snapshot current = snapshot;
+
+        Roaring64NavigableMap result = copy(current.songs());
+
+        all.forEach(genre -> result.and(current.songsByGenre().get(genre)));
+
+        if (!any.isEmpty()) {
+            Roaring64NavigableMap union = new Roaring64NavigableMap();
+            any.forEach(genre -> union.or(current.songsByGenre().get(genre)));
+            result.and(union);
+        }
+
+        none.forEach(genre -> result.andNot(current.songsByGenre().get(genre)));
+
+        return result.toArray();
+    }
+
+    public long size() {
+        return snapshot.size();
+    }
+
+    private static Roaring64NavigableMap copy(Roaring64NavigableMap bitmap) {
+        Roaring64NavigableMap copy = new Roaring64NavigableMap();
+        copy.or(bitmap);
+        return copy;
+    }
+
+    // Never modified once published. The cardinality is taken up front, computing it fills caches
+    // inside the bitmap.
+    private record Snapshot(Roaring64NavigableMap songs, Map<GenreName, Roaring64NavigableMap> songsByGenre, long size) {
+
+        private static Snapshot of(Roaring64NavigableMap songs, Map<GenreName, Roaring64NavigableMap> songsByGenre) {
+            return new Snapshot(songs, songsByGenre, songs.getLongCardinality());
+        }
+
+        private static Snapshot empty() {
+            Map<GenreName, Roaring64NavigableMap> songsByGenre = new EnumMap<>(GenreName.class);
+            for (GenreName genre : GenreName.values()) {
+                songsByGenre.put(genre, new Roaring64NavigableMap());
+            }
+            return new Snapshot(new Roaring64NavigableMap(), songsByGenre, 0);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.demo.index;
+
+public record IndexedName(Long id, String name) {
+}
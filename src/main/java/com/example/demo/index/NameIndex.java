@@ -0,0 +1,191 @@
+package com.example.demo.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index from name tokens to ids.
+ * <p>
+ * Names are lower-cased, stripped of diacritics and split on anything that is not a letter or a
+ * digit. A query matches an id when every query token matches one of its tokens, exactly, as a
+ * prefix, or for tokens of {@value #MIN_FUZZY_LENGTH}+ characters within one edit. Typos are
+ * found through one-deletion variants of every indexed term (the SymSpell scheme), which turns
+ * fuzzy matching into a handful of hash lookups instead of a scan over the dictionary.
+ * <p>
+ * Writes are serialized, reads are lock-free and may observe a write in progress.
+ */
+public class NameIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> deletionVariants = new ConcurrentHashMap<>();
+    private final Map<Long, List<String>> documents = new ConcurrentHashMap<>();
+
+    public synchronized void put(long id, String name) {
+        remove(id);
+
+        List<String> terms = tokenize(name);
+        documents.put(id, terms);
+
+        for (String term : terms) {
+            postings.computeIfAbsent(term, key -> {
+                deletions(key).forEach(variant ->
+                        deletionVariants.computeIfAbsent(variant, v -> ConcurrentHashMap.newKeySet()).add(key));
+                return ConcurrentHashMap.newKeySet();
+            }).add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        List<String> terms = documents.remove(id);
+        if (terms == null) {
+            return;
+        }
+
+        for (String term : terms) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                deletions(term).forEach(variant -> {
+                    Set<String> variantTerms = deletionVariants.get(variant);
+                    variantTerms.remove(term);
+                    if (variantTerms.isEmpty()) {
+                        deletionVariants.remove(variant);
+                    }
+                });
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        deletionVariants.clear();
+        documents.clear();
+    }
+
+    /**
+     * @return ids matching every token of the query, best matches first, at most {@code limit}
+     */
+    public List<Long> search(String query, int limit) {
+        return score(query).entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * @return ids matching every token of the query, in no particular order
+     */
+    public Set<Long> matches(String query) {
+        return score(query).keySet();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    private Map<Long, Integer> score(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String term : terms) {
+            Map<Long, Integer> matches = match(term);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((id, score) -> score + matches.get(id));
+            }
+            if (scores.isEmpty()) {
+                return Map.of();
+            }
+        }
+        return scores;
+    }
+
+    private Map<Long, Integer> match(String term) {
+        Map<Long, Integer> matches = new HashMap<>();
+
+        postings.subMap(term, true, term + Character.MAX_VALUE, false).forEach((indexed, ids) -> {
+            int score = indexed.equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            ids.forEach(id -> matches.merge(id, score, Math::max));
+        });
+
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String indexed : fuzzyTerms(term)) {
+                Set<Long> ids = postings.get(indexed);
+                if (ids != null) {
+                    ids.forEach(id -> matches.merge(id, FUZZY_SCORE, Math::max));
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    // Terms one insertion, deletion, substitution or adjacent transposition away from the query
+    private Set<String> fuzzyTerms(String term) {
+        Set<String> terms = new HashSet<>(deletionVariants.getOrDefault(term, Set.of()));
+
+        for (String variant : deletions(term)) {
+            if (postings.containsKey(variant)) {
+                terms.add(variant);
+            }
+            terms.addAll(deletionVariants.getOrDefault(variant, Set.of()));
+        }
+
+        terms.remove(term);
+        return terms;
+    }
+
+    private static Set<String> deletions(String term) {
+        Set<String> variants = new HashSet<>();
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return variants;
+        }
+
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        folded = DIACRITICS.matcher(folded).replaceAll("").replace('đ', 'd');
+
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty() && !terms.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.index;
+
+import com.example.demo.constant.GenreName;
+
+/**
+ * One song-genre membership, {@code genre} is null for a song without genres.
+ */
+public record SongGenre(Long songId, GenreName genre) {
+}
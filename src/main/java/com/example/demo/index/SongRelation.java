@@ -0,0 +1,7 @@
+package com.example.demo.index;
+
+/**
+ * One song-artist pair with the album of the song, either id may be null.
+ */
+public record SongRelation(Long songId, Long albumId, Long artistId) {
+}
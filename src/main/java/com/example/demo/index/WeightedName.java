@@ -0,0 +1,4 @@
+package com.example.demo.index;
+
+public record WeightedName(Long id, String name, long weight) {
+}
@@ -0,0 +1,204 @@
+package com.example.demo.ingest;
+
+import com.example.demo.counter.EngagementCounters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded buffer of play events in front of {@code listening_history}. A single flusher thread
+ * drains it and writes each drained batch as one JDBC batch, which the MySQL driver rewrites into
+ * a multi-row INSERT. This bypasses Hibernate, whose IDENTITY ids would force one INSERT per row.
+ * <p>
+ * A full queue rejects new events instead of blocking the request thread. On shutdown the queue
+ * stops after the web server, so requests still in flight get in, and whatever is left is written
+ * before the data source closes.
+ */
+@Slf4j
+@Component
+public class ListeningEventQueue implements SmartLifecycle {
+    private static final String INSERT_SQL = "INSERT INTO listening_history (user_id, song_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String EXISTING_SONGS_SQL = "SELECT id FROM song WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EngagementCounters engagementCounters;
+    private final BlockingQueue<ListeningEvent> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+
+    private final Counter acceptedEvents;
+    private final Counter rejectedEvents;
+    private final Counter writtenEvents;
+    private final Counter failedEvents;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public ListeningEventQueue(NamedParameterJdbcTemplate jdbcTemplate,
+                               EngagementCounters engagementCounters,
+                               @Value("${listening.queue.capacity:10000}") int capacity,
+                               @Value("${listening.queue.batchSize:500}") int batchSize,
+                               @Value("${listening.queue.flushInterval:1s}") Duration flushInterval,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.engagementCounters = engagementCounters;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+
+        this.acceptedEvents = eventCounter(meterRegistry, "accepted");
+        this.rejectedEvents = eventCounter(meterRegistry, "rejected");
+        this.writtenEvents = eventCounter(meterRegistry, "written");
+        this.failedEvents = eventCounter(meterRegistry, "failed");
+        this.flushTimer = Timer.builder("listening.flush")
+                .description("Time spent writing one batch of play events")
+                .register(meterRegistry);
+
+        Gauge.builder("listening.queue.size", queue, BlockingQueue::size)
+                .description("Play events waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("listening.queue.lag", this, ListeningEventQueue::lagSeconds)
+                .description("Age of the oldest play event waiting to be written")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false when the queue is full or shutting down, the caller should ask the client to
+     * retry later
+     */
+    public boolean offer(long userId, long songId) {
+        boolean accepted = running && queue.offer(new ListeningEvent(userId, songId, Instant.now()));
+        (accepted ? acceptedEvents : rejectedEvents).increment();
+        return accepted;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::flushLoop, "listening-flusher");
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        try {
+            flusher.join(flushInterval.multipliedBy(2).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<ListeningEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop after the web server (DEFAULT_PHASE - 2048) has stopped taking requests
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        List<ListeningEvent> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                ListeningEvent first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ListeningEvent> batch) {
+        try {
+            flushTimer.record(() -> write(batch));
+        } catch (RuntimeException e) {
+            failedEvents.increment(batch.size());
+            log.error("Failed to write {} play events", batch.size(), e);
+        }
+    }
+
+    private void write(List<ListeningEvent> batch) {
+        // A play of a song deleted in the meantime would fail the whole multi-row INSERT
+        Set<Long> songIds = new HashSet<>();
+        batch.forEach(event -> songIds.add(event.songId()));
+        Set<Long> existingSongIds = new HashSet<>(
+                jdbcTemplate.queryForList(EXISTING_SONGS_SQL, Map.of("ids", songIds), Long.class));
+
+        List<ListeningEvent> events = batch.stream()
+                .filter(event -> existingSongIds.contains(event.songId()))
+                .toList();
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            Timestamp playedAt = Timestamp.from(event.playedAt());
+            ps.setLong(1, event.userId());
+            ps.setLong(2, event.songId());
+            ps.setTimestamp(3, playedAt);
+            ps.setTimestamp(4, playedAt);
+        });
+
+        events.forEach(event -> engagementCounters.addPlays(event.songId(), 1));
+
+        writtenEvents.increment(events.size());
+        failedEvents.increment(batch.size() - events.size());
+    }
+
+    private double lagSeconds() {
+        ListeningEvent oldest = queue.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.playedAt(), Instant.now()).toMillis() / 1000.0;
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("listening.events")
+                .tag("outcome", outcome)
+                .description("Play events by ingestion outcome")
+                .register(meterRegistry);
+    }
+
+    private record ListeningEvent(long userId, long songId, Instant playedAt) {
+    }
+}
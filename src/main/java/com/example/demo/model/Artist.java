@@ -31,7 +31,8 @@ public class Artist extends AbstractEntity {
     @Column(name = "followers")
     private long followers = 0;
 
-    @ManyToMany
+    // Song owns artist_songs
+    @ManyToMany(mappedBy = "artists")
     private Set<Song> songs = new HashSet<>();
 
     @OneToMany(mappedBy = "artist", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -54,6 +55,13 @@ public class Artist extends AbstractEntity {
         }
     }
 
+    @PreRemove
+    private void removeSongs() {
+        if (songs != null) {
+            songs.forEach(song -> song.getArtists().remove(this));
+        }
+    }
+
     public void saveAlbum(Album album) {
         if (album != null) {
             if (this.albums == null) {
@@ -4,11 +4,15 @@ import com.example.demo.constant.RoleName;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "role")
 @Getter
 @Setter
@@ -25,16 +29,13 @@ public class Role extends AbstractEntity {
     @Enumerated(EnumType.STRING)
     private RoleName name;
 
-    @ManyToMany
-    @JoinTable(
-            name = "user_roles",
-            joinColumns = @JoinColumn(name = "role_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id"))
+    @ManyToMany(mappedBy = "roles")
     @JsonIgnore
     private Set<User> users = new HashSet<>();
 
     @ManyToMany(mappedBy = "roles")
     @JsonIgnore
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Set<Permission> permissions = new HashSet<>();
 
     public void savePermission(Permission permission) {
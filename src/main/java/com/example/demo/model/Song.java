@@ -35,6 +35,9 @@ public class Song extends AbstractEntity {
     @Column(name = "like_count")
     private long likeCount = 0;
 
+    @Column(name = "play_count")
+    private long playCount = 0;
+
     @ManyToMany(mappedBy = "songs")
     private Set<Genre> genres;
 
@@ -49,7 +52,8 @@ public class Song extends AbstractEntity {
     @JoinColumn(name = "album_id")
     private Album album;
 
-    @ManyToMany
+    // Playlist owns song_playlists
+    @ManyToMany(mappedBy = "songs")
     @JsonIgnore
     private Set<Playlist> playlists = new HashSet<>();
 
@@ -57,6 +61,13 @@ public class Song extends AbstractEntity {
     @JsonIgnore
     private Set<ListeningHistory> listeningHistories = new HashSet<>();
 
+    @PreRemove
+    private void removePlaylists() {
+        if (playlists != null) {
+            playlists.forEach(playlist -> playlist.getSongs().remove(this));
+        }
+    }
+
     public void saveGenre(Genre genre) {
         if (genre != null) {
             if (this.genres == null) {
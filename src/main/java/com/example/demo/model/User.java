@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -59,7 +60,11 @@ public class User extends AbstractEntity implements UserDetails {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Address> addresses = new HashSet<>();
 
-    @ManyToMany(mappedBy = "users")
+    @ManyToMany
+    @JoinTable(
+            name = "user_roles",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -68,6 +73,23 @@ public class User extends AbstractEntity implements UserDetails {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<ListeningHistory> listeningHistories = new HashSet<>();
 
+    // Written through EngagementRepository only, never loaded as a whole
+    @ManyToMany
+    @JoinTable(
+            name = "song_likes",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "song_id"))
+    @JsonIgnore
+    private Set<Song> likedSongs = new HashSet<>();
+
+    @ManyToMany
+    @JoinTable(
+            name = "artist_follows",
+            joinColumns = @JoinColumn(name = "user_id"),
+            inverseJoinColumns = @JoinColumn(name = "artist_id"))
+    @JsonIgnore
+    private Set<Artist> followedArtists = new HashSet<>();
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "artist_id")
     @JsonIgnore
@@ -95,16 +117,25 @@ public class User extends AbstractEntity implements UserDetails {
         }
     }
 
+    // User owns user_roles, so Role.users is only kept in sync when it is already loaded
     public void saveRole(Role role) {
         if (role != null) {
             if (this.roles == null) {
                 this.roles = new HashSet<>();
             }
-            if (role.getUsers() == null) {
-                role.setUsers(new HashSet<>());
-            }
             this.roles.add(role);
-            role.getUsers().add(this);
+            if (role.getUsers() != null && Hibernate.isInitialized(role.getUsers())) {
+                role.getUsers().add(this);
+            }
+        }
+    }
+
+    public void removeRole(Role role) {
+        if (role != null && this.roles != null) {
+            this.roles.remove(role);
+            if (role.getUsers() != null && Hibernate.isInitialized(role.getUsers())) {
+                role.getUsers().remove(this);
+            }
         }
     }
 
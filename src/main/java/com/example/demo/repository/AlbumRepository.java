@@ -1,8 +1,10 @@
 package com.example.demo.repository;
 
+import com.example.demo.index.IndexedName;
+import com.example.demo.index.WeightedName;
 import com.example.demo.model.Album;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,12 +24,22 @@ public interface AlbumRepository extends JpaRepository<Album, Long> {
             "WHERE a.id =: id")
     Optional<Album> findByIdWithAllFields(@Param("id") Long id);
     @Query("SELECT a.id FROM Album a")
-    Page<Long> findAllIds(Pageable pageable);
+    Slice<Long> findAllIds(Pageable pageable);
+    @Query("SELECT a.id FROM Album a " +
+            "WHERE a.id > :id " +
+            "ORDER BY a.id ASC")
+    List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
     @EntityGraph(attributePaths = "artist")
     @Query("SELECT a FROM Album a " +
             "WHERE a.id IN :ids")
     List<Album> findAllByIdsAndSort(@Param("ids") List<Long> ids, Sort sort);
     @Query("SELECT a.id FROM Album a " +
-            "WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<Long> findAllIdsByName(@Param("name") String name, Pageable pageable);
+            "WHERE a.id IN :ids")
+    Slice<Long> findAllIdsByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+    @Query("SELECT new com.example.demo.index.IndexedName(a.id, a.name) FROM Album a")
+    List<IndexedName> findAllNames();
+    @Query("SELECT new com.example.demo.index.WeightedName(a.id, a.name, COALESCE(SUM(s.likeCount), 0)) FROM Album a " +
+            "LEFT JOIN a.songs s " +
+            "GROUP BY a.id, a.name")
+    List<WeightedName> findAllWeightedNames();
 }
@@ -1,8 +1,10 @@
 package com.example.demo.repository;
 
+import com.example.demo.index.IndexedName;
+import com.example.demo.index.WeightedName;
 import com.example.demo.model.Artist;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -18,6 +21,8 @@ import java.util.Set;
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, Long>, JpaSpecificationExecutor<Artist> {
     Optional<Artist> findByName(String name);
+    @Query("SELECT a FROM Artist a WHERE a.user.username = :username")
+    Optional<Artist> findByUsername(@Param("username") String username);
     @Query("SELECT a FROM Artist a WHERE a.name IN :names")
     Set<Artist> findByNameIn(@Param("names") Set<String> names);
     @EntityGraph(attributePaths = {"songs", "albums"})
@@ -25,12 +30,23 @@ public interface ArtistRepository extends JpaRepository<Artist, Long>, JpaSpecif
             "WHERE a.id = :id")
     Optional<Artist> findWithSongsAndAlbums(@Param("id") Long id);
     @Query("SELECT a.id FROM Artist a")
-    Page<Long> findAllIds(Pageable pageable);
+    Slice<Long> findAllIds(Pageable pageable);
+    @Query("SELECT new com.example.demo.repository.KeysetRow(a.id, a.followers) FROM Artist a " +
+            "ORDER BY a.followers DESC, a.id DESC")
+    List<KeysetRow> findFirstRowsByFollowers(Pageable pageable);
+    @Query("SELECT new com.example.demo.repository.KeysetRow(a.id, a.followers) FROM Artist a " +
+            "WHERE a.followers < :followers OR (a.followers = :followers AND a.id < :id) " +
+            "ORDER BY a.followers DESC, a.id DESC")
+    List<KeysetRow> findRowsByFollowersAfter(@Param("followers") long followers, @Param("id") Long id, Pageable pageable);
     @Query("SELECT a FROM Artist a " +
             "WHERE a.id IN :ids")
     List<Artist> findAllByIdsAndSort(@Param("ids") List<Long> ids, Sort sort);
     @Query("SELECT a.id FROM Artist a " +
-            "WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<Long> findAllIdsByName(@Param("name") String name, Pageable pageable);
+            "WHERE a.id IN :ids")
+    Slice<Long> findAllIdsByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+    @Query("SELECT new com.example.demo.index.IndexedName(a.id, a.name) FROM Artist a")
+    List<IndexedName> findAllNames();
+    @Query("SELECT new com.example.demo.index.WeightedName(a.id, a.name, a.followers) FROM Artist a")
+    List<WeightedName> findAllWeightedNames();
 
 }
@@ -0,0 +1,80 @@
+package com.example.demo.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Likes, follows and their aggregate counters. Plain JDBC on purpose: a native query through
+ * Hibernate would invalidate every second-level cache region on each like.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EngagementRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return false when the user already likes the song, or the song does not exist
+     */
+    public boolean likeSong(long userId, long songId) {
+        return jdbcTemplate.update("INSERT IGNORE INTO song_likes (user_id, song_id) VALUES (?, ?)",
+                userId, songId) > 0;
+    }
+
+    public boolean unlikeSong(long userId, long songId) {
+        return jdbcTemplate.update("DELETE FROM song_likes WHERE user_id = ? AND song_id = ?",
+                userId, songId) > 0;
+    }
+
+    /**
+     * @return false when the user already follows the artist, or the artist does not exist
+     */
+    public boolean followArtist(long userId, long artistId) {
+        return jdbcTemplate.update("INSERT IGNORE INTO artist_follows (user_id, artist_id) VALUES (?, ?)",
+                userId, artistId) > 0;
+    }
+
+    public boolean unfollowArtist(long userId, long artistId) {
+        return jdbcTemplate.update("DELETE FROM artist_follows WHERE user_id = ? AND artist_id = ?",
+                userId, artistId) > 0;
+    }
+
+    // User owns both join tables, so deleting a song or an artist does not clear them
+
+    public void deleteSongLikes(long songId) {
+        jdbcTemplate.update("DELETE FROM song_likes WHERE song_id = ?", songId);
+    }
+
+    public void deleteArtistFollows(long artistId) {
+        jdbcTemplate.update("DELETE FROM artist_follows WHERE artist_id = ?", artistId);
+    }
+
+    // Each batch runs in one transaction, so a failed flush leaves no row updated and re-adding
+    // all of its deltas cannot count any of them twice
+
+    @Transactional
+    public void addLikeCounts(Map<Long, Long> deltas) {
+        addCounts("UPDATE song SET like_count = like_count + ? WHERE id = ?", deltas);
+    }
+
+    @Transactional
+    public void addPlayCounts(Map<Long, Long> deltas) {
+        addCounts("UPDATE song SET play_count = play_count + ? WHERE id = ?", deltas);
+    }
+
+    @Transactional
+    public void addFollowerCounts(Map<Long, Long> deltas) {
+        addCounts("UPDATE artist SET followers = followers + ? WHERE id = ?", deltas);
+    }
+
+    private void addCounts(String sql, Map<Long, Long> deltas) {
+        jdbcTemplate.batchUpdate(sql, new ArrayList<>(deltas.entrySet()), deltas.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+        });
+    }
+}
@@ -2,17 +2,25 @@ package com.example.demo.repository;
 
 import com.example.demo.constant.GenreName;
 import com.example.demo.model.Genre;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Genre> findAll();
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Genre> findByName(GenreName name);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Genre g WHERE g.name IN :names")
     Set<Genre> findByNameIn(@Param("names") Set<GenreName> names);
 }
@@ -0,0 +1,8 @@
+package com.example.demo.repository;
+
+/**
+ * Id and sort key of a row read by a keyset query. The next cursor is built from these, as read
+ * together with the page, not from the entity loaded afterwards, whose count may have moved.
+ */
+public record KeysetRow(Long id, long sortValue) {
+}
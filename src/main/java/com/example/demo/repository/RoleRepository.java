@@ -2,8 +2,12 @@ package com.example.demo.repository;
 
 import com.example.demo.constant.RoleName;
 import com.example.demo.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,11 +16,12 @@ import java.util.Set;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Integer> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(RoleName name);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT r FROM Role r WHERE r.name IN :names")
     Set<Role> findByNameIn(@Param("names") Set<RoleName> names);
-    @Query("SELECT DISTINCT r FROM Role r " +
-            "LEFT JOIN FETCH r.users " +
-            "WHERE r.name = :name")
-    Optional<Role> findByNameWithUsers(@Param("name") RoleName name);
+    @Modifying
+    @Query(value = "DELETE FROM user_roles WHERE role_id = :roleId", nativeQuery = true)
+    void deleteUserRoles(@Param("roleId") int roleId);
 }
@@ -1,8 +1,13 @@
 package com.example.demo.repository;
 
+import com.example.demo.chart.SongScore;
+import com.example.demo.index.IndexedName;
+import com.example.demo.index.SongGenre;
+import com.example.demo.index.SongRelation;
+import com.example.demo.index.WeightedName;
 import com.example.demo.model.Song;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,26 +16,64 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SongRepository extends JpaRepository<Song, Long>, JpaSpecificationExecutor<Song> {
     boolean existsByName(String name);
+    @Query("SELECT COUNT(s) > 0 FROM Song s JOIN s.artists a " +
+            "WHERE a.id = :artistId AND s.name = :name")
+    boolean existsByNameAndArtistId(@Param("name") String name, @Param("artistId") Long artistId);
+    @Query("SELECT COUNT(s) > 0 FROM Song s JOIN s.artists a " +
+            "WHERE s.id = :songId AND a.id = :artistId")
+    boolean existsByIdAndArtistId(@Param("songId") Long songId, @Param("artistId") Long artistId);
     @EntityGraph(attributePaths = {"genres", "artists", "album"})
     @Query("SELECT s FROM Song s " +
             "WHERE s.id = :id")
     Optional<Song> findByIdWithAllFields(@Param("id") Long id);
+    @Query("SELECT s.songUrl FROM Song s " +
+            "WHERE s.id = :id")
+    Optional<String> findSongUrlById(@Param("id") Long id);
     @Query("SELECT s.id FROM Song s")
-    Page<Long> findAllIds(Pageable pageable);
+    Slice<Long> findAllIds(Pageable pageable);
+    @Query("SELECT new com.example.demo.repository.KeysetRow(s.id, s.likeCount) FROM Song s " +
+            "ORDER BY s.likeCount DESC, s.id DESC")
+    List<KeysetRow> findFirstRowsByLikeCount(Pageable pageable);
+    @Query("SELECT new com.example.demo.repository.KeysetRow(s.id, s.likeCount) FROM Song s " +
+            "WHERE s.likeCount < :likeCount OR (s.likeCount = :likeCount AND s.id < :id) " +
+            "ORDER BY s.likeCount DESC, s.id DESC")
+    List<KeysetRow> findRowsByLikeCountAfter(@Param("likeCount") long likeCount, @Param("id") Long id, Pageable pageable);
     @EntityGraph(attributePaths = {"genres", "artists", "album"})
     @Query("SELECT s FROM Song s " +
             "WHERE s.id IN :ids")
     List<Song> findAllByIdsAndSort(@Param("ids") List<Long> ids, Sort sort);
     @Query("SELECT s.id FROM Song s " +
-            "WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<Long> findAllIdsByName(@Param("name") String name, Pageable pageable);
+            "WHERE s.id IN :ids")
+    Slice<Long> findAllIdsByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+    @Query("SELECT new com.example.demo.index.IndexedName(s.id, s.name) FROM Song s")
+    List<IndexedName> findAllNames();
+    @Query("SELECT new com.example.demo.index.WeightedName(s.id, s.name, s.likeCount) FROM Song s")
+    List<WeightedName> findAllWeightedNames();
+    @Query("SELECT new com.example.demo.index.SongGenre(s.id, g.name) FROM Song s " +
+            "LEFT JOIN s.genres g")
+    List<SongGenre> findAllGenres();
+    @Query("SELECT new com.example.demo.index.SongRelation(s.id, al.id, ar.id) FROM Song s " +
+            "LEFT JOIN s.album al " +
+            "LEFT JOIN s.artists ar")
+    List<SongRelation> findAllRelations();
+
+    @Query("SELECT new com.example.demo.chart.SongScore(s.id, s.likeCount, s.playCount, g.name) FROM Song s " +
+            "LEFT JOIN s.genres g")
+    List<SongScore> findAllScores();
+    @Query("SELECT new com.example.demo.chart.SongScore(s.id, s.likeCount, s.playCount, g.name) FROM Song s " +
+            "LEFT JOIN s.genres g " +
+            "WHERE s.id IN :ids")
+    List<SongScore> findScoresByIds(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT s.id FROM Song s JOIN s.genres g WHERE g.id = :genreId")
-    Page<Long> findAllIdsByGenre(@Param("genreId") Integer genreId, Pageable pageable);
+    Slice<Long> findAllIdsByGenre(@Param("genreId") Integer genreId, Pageable pageable);
+    @Query("SELECT COUNT(s) FROM Song s JOIN s.genres g WHERE g.id = :genreId")
+    long countAllByGenre(@Param("genreId") Integer genreId);
 }
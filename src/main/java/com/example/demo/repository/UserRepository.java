@@ -1,8 +1,8 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -38,12 +38,18 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
             "WHERE u.id = :id")
     Optional<User> findByIdWithAllFields(@Param("id") Long id);
     @Query("SELECT u.id FROM User u")
-    Page<Long> findAllIds(Pageable pageable);
+    Slice<Long> findAllIds(Pageable pageable);
+    @Query("SELECT u.id FROM User u " +
+            "WHERE u.id > :id " +
+            "ORDER BY u.id ASC")
+    List<Long> findIdsAfter(@Param("id") Long id, Pageable pageable);
     @EntityGraph(attributePaths = {"roles", "addresses"})
     @Query("SELECT DISTINCT u FROM User u " +
             "WHERE u.id IN :ids")
     List<User> findAllByIdsAndSort(@Param("ids") List<Long> ids, Sort sort);
-    @Query("SELECT u FROM User u JOIN Artist a WHERE u.username = : username")
+    @Query("SELECT u FROM User u " +
+            "LEFT JOIN FETCH u.artist " +
+            "WHERE u.username = :username")
     Optional<User> findByUsernameWithArtist(@Param("username") String username);
 
 }
@@ -1,6 +1,8 @@
 package com.example.demo.repository.criteria;
 
 import com.example.demo.model.User;
+import com.example.demo.repository.specification.SearchOperator;
+import com.example.demo.repository.specification.SearchPredicates;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
@@ -22,33 +24,7 @@ public class UserSearchCriteriaQueryConsumer implements Consumer<SearchCriteria>
 
     @Override
     public void accept(SearchCriteria search) {
-        String key = search.getKey();
-        String operator = search.getOperator();
-        Object value = search.getValue();
-
-        switch (operator) {
-
-            case ">" -> predicate = builder.and(predicate, builder.greaterThan(root.get(key), value.toString()));
-
-            case ">=" -> predicate = builder.and(predicate, builder.greaterThanOrEqualTo(root.get(key), value.toString()));
-
-            case "<" -> predicate = builder.and(predicate, builder.lessThan(root.get(key), value.toString()));
-
-            case "<=" -> predicate = builder.and(predicate, builder.lessThanOrEqualTo(root.get(key), value.toString()));
-
-            case "=" -> predicate = builder.and(predicate, builder.equal(root.get(key), value.toString()));
-
-            case "!=" -> predicate = builder.and(predicate, builder.notEqual(root.get(key), value.toString()));
-
-            case ":" -> predicate = builder.and(predicate, builder.like(root.get(key), value.toString()));
-
-            case "!:" -> predicate = builder.and(predicate, builder.notLike(root.get(key), value.toString()));
-
-            case "~" -> predicate = builder.and(predicate, builder.like(root.get(key), "%" + value.toString() + "%"));
-
-            case "!~" -> predicate = builder.and(predicate, builder.notLike(root.get(key), "%" + value.toString() + "%"));
-
-            default -> throw new IllegalStateException("Unexpected value: " + operator);
-        }
+        SearchOperator operator = SearchOperator.getSimpleOperator(search.getOperator());
+        predicate = builder.and(predicate, SearchPredicates.of(builder, root.get(search.getKey()), operator, search.getValue()));
     }
 }
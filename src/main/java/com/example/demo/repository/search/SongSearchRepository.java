@@ -1,12 +1,14 @@
 package com.example.demo.repository.search;
 
 import com.example.demo.model.Song;
+import com.example.demo.repository.specification.SearchFieldRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.*;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
@@ -15,11 +17,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Repository
+@RequiredArgsConstructor
 public class SongSearchRepository {
     @PersistenceContext
     private EntityManager entityManager;
 
-    public Page<Long> findIdsBySpecification(Specification<Song> specification, Pageable pageable) {
+    private final SearchFieldRegistry searchFieldRegistry;
+
+    public Slice<Long> findIdsBySpecification(Specification<Song> specification, Pageable pageable) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> query = builder.createQuery(Long.class);
         Root<Song> root = query.from(Song.class);
@@ -40,19 +45,42 @@ public class SongSearchRepository {
             query.orderBy(orders);
         }
 
-        List<Long> ids = entityManager.createQuery(query)
+        // One extra row tells whether there is a next page, the total is counted separately on demand
+        // Sorts without an index are bounded to the first rows by the caller and capped in time here
+        List<Long> ids = searchFieldRegistry.of(Song.class).limitCost(entityManager.createQuery(query), pageable.getSort())
                 .setFirstResult((int) pageable.getOffset())
-                .setMaxResults(pageable.getPageSize())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = ids.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
+
+    /**
+     * @return ids of all matching songs, at most {@code limit}, in no particular order
+     */
+    public List<Long> findAllIdsBySpecification(Specification<Song> specification, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Song> root = query.from(Song.class);
+
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        query.select(root.get("id")).where(predicate);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
                 .getResultList();
+    }
 
+    public long countBySpecification(Specification<Song> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
         Root<Song> countRoot = countQuery.from(Song.class);
 
-        Predicate countPredicate = specification.toPredicate(countRoot, query, builder);
+        Predicate countPredicate = specification.toPredicate(countRoot, countQuery, builder);
         countQuery.select(builder.count(countRoot)).where(countPredicate);
 
-        long total = entityManager.createQuery(countQuery).getSingleResult();
-
-        return new PageImpl<>(ids, pageable, total);
+        return entityManager.createQuery(countQuery).getSingleResult();
     }
 }
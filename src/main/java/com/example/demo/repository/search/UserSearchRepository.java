@@ -6,22 +6,22 @@ import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.User;
 import com.example.demo.repository.criteria.SearchCriteria;
 import com.example.demo.repository.criteria.UserSearchCriteriaQueryConsumer;
+import com.example.demo.repository.specification.SearchExpressionParser;
+import com.example.demo.repository.specification.SearchFieldRegistry;
+import com.example.demo.utils.SortUtil;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Repository
 @RequiredArgsConstructor
@@ -30,20 +30,11 @@ public class UserSearchRepository {
     private EntityManager entityManager;
 
     private final UserMapper userMapper;
+    private final SearchFieldRegistry searchFieldRegistry;
 
     public PageResponseCriteria<?> criteriaSearch(int offset, int pageSize, String sortBy, String... search) {
 
-        List<SearchCriteria> criteriaList = new ArrayList<>();
-
-        if (search != null) {
-            for (String s : search) {
-                Pattern pattern = Pattern.compile("^(\\w+)(!:|!~|!=|>=|<=|[:~=><])(\\w+)$");
-                Matcher matcher = pattern.matcher(s);
-                if (matcher.find()) {
-                    criteriaList.add(new SearchCriteria(matcher.group(1), matcher.group(2), matcher.group(3)));
-                }
-            }
-        }
+        List<SearchCriteria> criteriaList = SearchExpressionParser.parseCriteria(searchFieldRegistry.of(User.class), search);
 
         List<Long> userIds = getUsersIds(offset, pageSize, criteriaList);
 
@@ -63,7 +54,7 @@ public class UserSearchRepository {
                 .build();
     }
 
-    public Page<Long> findIdsBySpecification(Specification<User> specification, Pageable pageable) {
+    public Slice<Long> findIdsBySpecification(Specification<User> specification, Pageable pageable) {
         CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> query = builder.createQuery(Long.class);
         Root<User> root = query.from(User.class);
@@ -84,20 +75,27 @@ public class UserSearchRepository {
             query.orderBy(orders);
         }
 
-        List<Long> ids = entityManager.createQuery(query)
-                            .setFirstResult((int) pageable.getOffset())
-                            .setMaxResults(pageable.getPageSize())
-                            .getResultList();
+        // One extra row tells whether there is a next page, the total is counted separately on demand
+        // Sorts without an index are bounded to the first rows by the caller and capped in time here
+        List<Long> ids = searchFieldRegistry.of(User.class).limitCost(entityManager.createQuery(query), pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = ids.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? ids.subList(0, pageable.getPageSize()) : ids, pageable, hasNext);
+    }
 
+    public long countBySpecification(Specification<User> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = builder.createQuery(Long.class);
         Root<User> countRoot = countQuery.from(User.class);
 
-        Predicate countPredicate = specification.toPredicate(countRoot, query, builder);
+        Predicate countPredicate = specification.toPredicate(countRoot, countQuery, builder);
         countQuery.select(builder.count(countRoot)).where(countPredicate);
 
-        long total = entityManager.createQuery(countQuery).getSingleResult();
-
-        return new PageImpl<>(ids, pageable, total);
+        return entityManager.createQuery(countQuery).getSingleResult();
     }
 
     private List<Long> getUsersIds(int offset, int pageSize, List<SearchCriteria> criteriaList) {
@@ -132,20 +130,12 @@ public class UserSearchRepository {
 
         query.where(root.get("id").in(ids));
 
-        if (StringUtils.hasLength(sortBy)) {
-            Pattern pattern = Pattern.compile("^(\\w+)(:)(asc|desc)$");
-            Matcher matcher = pattern.matcher(sortBy);
-            if (matcher.find()) {
-                String columnToSort = matcher.group(1);
-                String sortDirection = matcher.group(3);
-                if (sortDirection.equalsIgnoreCase("asc")) {
-                    query.orderBy(builder.asc(root.get(columnToSort)));
-                }
-                else if (sortDirection.equalsIgnoreCase("desc")) {
-                    query.orderBy(builder.desc(root.get(columnToSort)));
-                }
-            }
-        }
+        SortUtil.parseSortBy(sortBy).ifPresent(order -> {
+            searchFieldRegistry.of(User.class).get(order.getProperty());
+            query.orderBy(order.isAscending()
+                    ? builder.asc(root.get(order.getProperty()))
+                    : builder.desc(root.get(order.getProperty())));
+        });
 
         return entityManager.createQuery(query).getResultList();
     }
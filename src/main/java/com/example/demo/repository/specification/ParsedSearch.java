@@ -0,0 +1,11 @@
+package com.example.demo.repository.specification;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A search expression and sort turned into query parts. Both are immutable and can be shared
+ * between requests.
+ */
+public record ParsedSearch<T>(Specification<T> specification, Sort sort) {
+}
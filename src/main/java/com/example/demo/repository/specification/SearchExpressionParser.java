@@ -0,0 +1,72 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.exception.InvalidDataException;
+import com.example.demo.repository.criteria.SearchCriteria;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the {@code search} parameter of the search endpoints, e.g. {@code name~love,likeCount>10}.
+ * Terms are {@code key operator value}, joined by {@value SearchOperator#AND_OPERATOR} (and) or
+ * {@value SearchOperator#OR_OPERATOR} (or). Keys outside the entity's {@link SearchFields} are rejected
+ * and values are converted to the field's type, e.g. {@code duration>200} or
+ * {@code dateOfBirth<2000-01-01}.
+ */
+public class SearchExpressionParser {
+    private static final Pattern EXPRESSION = Pattern.compile("([,']?)(\\w+)(!:|!~|!=|>=|<=|[:~=><])([\\w.-]+)");
+    private static final Pattern CRITERIA = Pattern.compile("^(\\w+)(!:|!~|!=|>=|<=|[:~=><])([\\w.-]+)$");
+
+    private SearchExpressionParser() {
+    }
+
+    public static List<SearchSpecification> parse(String search, SearchFields fields) {
+        List<SearchSpecification> specifications = new ArrayList<>();
+        if (!StringUtils.hasLength(search)) {
+            return specifications;
+        }
+
+        Matcher matcher = EXPRESSION.matcher(search);
+        while (matcher.find()) {
+            SearchField field = fields.get(matcher.group(2));
+            SearchOperator operator = SearchOperator.getSimpleOperator(matcher.group(3));
+            specifications.add(new SearchSpecification(matcher.group(1), field.name(), operator,
+                    parseValue(field, operator, matcher.group(4))));
+        }
+        return specifications;
+    }
+
+    /**
+     * Parses one term per element, as sent to the criteria search endpoint.
+     */
+    public static List<SearchCriteria> parseCriteria(SearchFields fields, String... search) {
+        List<SearchCriteria> criteria = new ArrayList<>();
+        if (search == null) {
+            return criteria;
+        }
+
+        Matcher matcher = CRITERIA.matcher("");
+        for (String term : search) {
+            if (matcher.reset(term).find()) {
+                SearchField field = fields.get(matcher.group(1));
+                SearchOperator operator = SearchOperator.getSimpleOperator(matcher.group(2));
+                criteria.add(new SearchCriteria(field.name(), matcher.group(2),
+                        parseValue(field, operator, matcher.group(3))));
+            }
+        }
+        return criteria;
+    }
+
+    private static Object parseValue(SearchField field, SearchOperator operator, String value) {
+        boolean pattern = switch (operator) {
+            case LIKE, NOT_LIKE, CONTAIN, NOT_CONTAIN -> true;
+            default -> false;
+        };
+        if (pattern && !field.isText())
+            throw new InvalidDataException("Pattern search is only supported on text fields: " + field.name());
+        return field.parse(value);
+    }
+}
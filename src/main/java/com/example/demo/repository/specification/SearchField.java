@@ -0,0 +1,55 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.exception.InvalidDataException;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * A field clients may filter and sort on.
+ *
+ * @param type    Java type of the attribute, from the JPA metamodel
+ * @param indexed whether an index leads with the column, so sorting by it does not sort the table
+ */
+public record SearchField(String name, Class<?> type, boolean indexed) {
+
+    public boolean isText() {
+        return type == String.class;
+    }
+
+    /**
+     * Converts a search value to the attribute's type, so it is bound as a number, date or enum
+     * and compared as one instead of as a string. Dates are given as {@code yyyy-MM-dd}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object parse(String value) {
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == long.class || type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == int.class || type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == boolean.class || type == Boolean.class) {
+                if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false"))
+                    throw new IllegalArgumentException(value);
+                return Boolean.valueOf(value);
+            }
+            if (type == Date.class) {
+                return Date.from(LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value.toUpperCase(Locale.ROOT));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidDataException("Invalid value for " + name + ": " + value);
+        }
+        throw new IllegalStateException("Unsupported search field type: " + type);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.model.AbstractEntity_;
+import com.example.demo.model.Album;
+import com.example.demo.model.Album_;
+import com.example.demo.model.Artist;
+import com.example.demo.model.Artist_;
+import com.example.demo.model.Song;
+import com.example.demo.model.Song_;
+import com.example.demo.model.User;
+import com.example.demo.model.User_;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Searchable and sortable fields per entity. Names come from the generated static metamodel and
+ * types from the runtime one, so a renamed attribute fails the build or the startup. Indexed
+ * fields are those leading an index in db/migration.
+ */
+@Component
+public class SearchFieldRegistry {
+    private final Map<Class<?>, SearchFields> registry = new HashMap<>();
+    private final Metamodel metamodel;
+    private final int unindexedSortWindow;
+    private final Duration unindexedSortTimeout;
+
+    public SearchFieldRegistry(EntityManagerFactory entityManagerFactory,
+                               @Value("${search.fields.unindexedSortWindow:1000}") int unindexedSortWindow,
+                               @Value("${search.fields.unindexedSortTimeout:2s}") Duration unindexedSortTimeout) {
+        this.metamodel = entityManagerFactory.getMetamodel();
+        this.unindexedSortWindow = unindexedSortWindow;
+        this.unindexedSortTimeout = unindexedSortTimeout;
+
+        register(Song.class, "songs",
+                List.of(Song_.ID, Song_.NAME, Song_.LIKE_COUNT),
+                List.of(Song_.DURATION, Song_.PLAY_COUNT, AbstractEntity_.CREATED_AT));
+        register(Artist.class, "artists",
+                List.of(Artist_.ID, Artist_.NAME, Artist_.FOLLOWERS),
+                List.of(AbstractEntity_.CREATED_AT));
+        register(Album.class, "albums",
+                List.of(Album_.ID, Album_.NAME),
+                List.of(AbstractEntity_.CREATED_AT));
+        register(User.class, "users",
+                List.of(User_.ID, User_.USERNAME, User_.EMAIL, User_.PHONE_NUMBER),
+                List.of(User_.FIRST_NAME, User_.LAST_NAME, User_.GENDER, User_.DATE_OF_BIRTH, User_.ACTIVE,
+                        AbstractEntity_.CREATED_AT));
+    }
+
+    public SearchFields of(Class<?> entity) {
+        return registry.get(entity);
+    }
+
+    private void register(Class<?> entity, String entityName, List<String> indexed, List<String> unindexed) {
+        EntityType<?> type = metamodel.entity(entity);
+
+        Map<String, SearchField> fields = new HashMap<>();
+        indexed.forEach(name -> fields.put(name, new SearchField(name, type.getAttribute(name).getJavaType(), true)));
+        unindexed.forEach(name -> fields.put(name, new SearchField(name, type.getAttribute(name).getJavaType(), false)));
+
+        registry.put(entity, new SearchFields(entityName, fields, unindexedSortWindow, unindexedSortTimeout));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.exception.InvalidDataException;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The fields of one entity that clients may filter and sort on. Any other key is rejected before
+ * it reaches a query.
+ * <p>
+ * Sorting by a field without an index makes MySQL sort every matching row. Such sorts are only
+ * served for the first {@code unindexedSortWindow} rows, where the sort stays a bounded top-n,
+ * and their queries run with a timeout.
+ */
+public class SearchFields {
+    private final String entityName;
+    private final Map<String, SearchField> fields;
+    private final int unindexedSortWindow;
+    private final Duration unindexedSortTimeout;
+
+    public SearchFields(String entityName, Map<String, SearchField> fields,
+                        int unindexedSortWindow, Duration unindexedSortTimeout) {
+        this.entityName = entityName;
+        this.fields = Map.copyOf(fields);
+        this.unindexedSortWindow = unindexedSortWindow;
+        this.unindexedSortTimeout = unindexedSortTimeout;
+    }
+
+    public SearchField get(String key) {
+        SearchField field = fields.get(key);
+        if (field == null)
+            throw new InvalidDataException("Cannot search or sort " + entityName + " by: " + key);
+        return field;
+    }
+
+    /**
+     * @return whether every order is on an indexed field, unknown fields are rejected
+     */
+    public boolean isIndexed(Sort sort) {
+        boolean indexed = true;
+        for (Sort.Order order : sort) {
+            indexed &= get(order.getProperty()).indexed();
+        }
+        return indexed;
+    }
+
+    public Pageable pageRequest(int pageNo, int pageSize, Sort sort) {
+        if (!isIndexed(sort) && (long) (pageNo + 1) * pageSize > unindexedSortWindow)
+            throw new InvalidDataException("Sorting " + entityName + " by " + sort +
+                    " is limited to the first " + unindexedSortWindow + " results");
+        return PageRequest.of(pageNo, pageSize, sort);
+    }
+
+    /**
+     * Puts a timeout on a query sorted by a field without an index.
+     */
+    public <T> TypedQuery<T> limitCost(TypedQuery<T> query, Sort sort) {
+        if (!isIndexed(sort)) {
+            query.setHint(AvailableHints.HINT_SPEC_QUERY_TIMEOUT, (int) unindexedSortTimeout.toMillis());
+        }
+        return query;
+    }
+}
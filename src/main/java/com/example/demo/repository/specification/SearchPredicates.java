@@ -0,0 +1,48 @@
+package com.example.demo.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Builds the predicate of one search term. Values arrive already converted by
+ * {@link SearchField#parse(String)}, so comparisons are bound with the column's JDBC type and
+ * range predicates can use an index.
+ */
+public class SearchPredicates {
+    private SearchPredicates() {
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Predicate of(CriteriaBuilder builder, Path<?> path, SearchOperator operator, Object value) {
+        Expression<Comparable> comparable = (Expression<Comparable>) path;
+        Expression<String> text = (Expression<String>) path;
+
+        return switch (operator) {
+
+            case GREATER_THAN -> builder.greaterThan(comparable, (Comparable) value);
+
+            case GREATER_THAN_OR_EQUAL_TO -> builder.greaterThanOrEqualTo(comparable, (Comparable) value);
+
+            case LESS_THAN -> builder.lessThan(comparable, (Comparable) value);
+
+            case LESS_THAN_OR_EQUAL_TO -> builder.lessThanOrEqualTo(comparable, (Comparable) value);
+
+            case EQUAL -> builder.equal(path, value);
+
+            case NOT_EQUAL -> builder.notEqual(path, value);
+
+            case LIKE -> builder.like(text, value.toString());
+
+            case NOT_LIKE -> builder.notLike(text, value.toString());
+
+            case CONTAIN -> builder.like(text, "%" + value + "%");
+
+            case NOT_CONTAIN -> builder.notLike(text, "%" + value + "%");
+
+            default -> throw new IllegalStateException("Unexpected operator: " + operator);
+
+        };
+    }
+}
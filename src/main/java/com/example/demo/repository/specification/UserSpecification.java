@@ -20,35 +20,7 @@ public class UserSpecification implements Specification<User> {
     public Predicate toPredicate(@NonNull Root<User> root,
                                  CriteriaQuery<?> query,
                                  @NonNull CriteriaBuilder builder) {
-
-        String key = specification.getKey();
-        SearchOperator operator = specification.getOperator();
-        Object value = specification.getValue();
-
-        return switch (operator) {
-
-            case GREATER_THAN -> builder.greaterThan(root.get(key), value.toString());
-
-            case GREATER_THAN_OR_EQUAL_TO -> builder.greaterThanOrEqualTo(root.get(key), value.toString());
-
-            case LESS_THAN -> builder.lessThan(root.get(key), value.toString());
-
-            case LESS_THAN_OR_EQUAL_TO -> builder.lessThanOrEqualTo(root.get(key), value.toString());
-
-            case EQUAL -> builder.equal(root.get(key), value.toString());
-
-            case NOT_EQUAL -> builder.notEqual(root.get(key), value.toString());
-
-            case LIKE -> builder.like(root.get(key), value.toString());
-
-            case NOT_LIKE -> builder.notLike(root.get(key), value.toString());
-
-            case CONTAIN -> builder.like(root.get(key), "%" + value.toString() + "%");
-
-            case NOT_CONTAIN -> builder.notLike(root.get(key), "%" + value.toString() + "%");
-
-            default -> throw new IllegalStateException("Unexpected operator: " + operator);
-
-        };
+        return SearchPredicates.of(builder, root.get(specification.getKey()),
+                specification.getOperator(), specification.getValue());
     }
 }
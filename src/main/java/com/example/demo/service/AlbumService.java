@@ -3,6 +3,7 @@ package com.example.demo.service;
 import com.example.demo.dto.request.AlbumRequest;
 import com.example.demo.dto.request.AlbumRequestForArtist;
 import com.example.demo.dto.response.AlbumResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.PageResponse;
 
 public interface AlbumService {
@@ -11,6 +12,7 @@ public interface AlbumService {
     long updateAlbum(Long id, AlbumRequestForArtist albumRequest);
     long deleteAlbum(Long id);
     PageResponse<?> getAllAlbums(int pageNo, int pageSize, String sortBy);
+    CursorPageResponse<?> getAllAlbumsByCursor(int pageSize, String cursor);
     PageResponse<?> getAlbumsByName(int pageNo, int pageSize, String sortBy, String name);
     PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search);
 }
@@ -5,6 +5,7 @@ import com.example.demo.dto.request.SongRequestForArtist;
 import com.example.demo.dto.request.UpdateArtistInfoRequest;
 import com.example.demo.dto.request.UserRequest;
 import com.example.demo.dto.response.ArtistResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.PageResponse;
 
 import java.io.IOException;
@@ -23,7 +24,10 @@ public interface ArtistService {
     long deleteMySong(Long songId);
     long deleteMyAlbum(Long albumId);
     long deleteMySongFromMyAlbum(Long songId, Long albumId);
+    long followArtist(Long id);
+    long unfollowArtist(Long id);
     PageResponse<?> getAllArtists(int pageNo, int pageSize, String sortBy);
+    CursorPageResponse<?> getAllArtistsByCursor(int pageSize, String cursor);
     PageResponse<?> getArtistsByName(int pageNo, int pageSize, String sortBy, String name);
     PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search);
 }
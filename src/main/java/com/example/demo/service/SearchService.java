@@ -0,0 +1,9 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.SuggestionResponse;
+
+import java.util.List;
+
+public interface SearchService {
+    List<SuggestionResponse> suggest(String prefix, int limit);
+}
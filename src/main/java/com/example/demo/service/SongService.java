@@ -1,16 +1,34 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.request.SongRequest;
+import com.example.demo.dto.response.ChartSongResponse;
+import com.example.demo.dto.response.CursorPageResponse;
+import com.example.demo.dto.response.FacetedPageResponse;
 import com.example.demo.dto.response.PageResponse;
 import com.example.demo.dto.response.SongResponse;
 
+import java.util.List;
+import java.util.Set;
+
 public interface SongService {
     long addSong(SongRequest request);
     SongResponse getSong(Long id);
     long updateSong(Long id, SongRequest request);
     long deleteSong(Long id);
     PageResponse<?> getAllSongs(int pageNo, int pageSize, String sortBy);
+    CursorPageResponse<?> getAllSongsByCursor(int pageSize, String cursor);
     PageResponse<?> getSongsByName(int pageNo, int pageSize, String sortBy, String name);
+    FacetedPageResponse<?> getSongsByNameWithFacets(int pageNo, int pageSize, String sortBy, String name);
     PageResponse<?> getSongsByGenre(int pageNo, int pageSize, String sortBy, Integer genreId);
+    PageResponse<?> getSongsByGenres(int pageNo, int pageSize, Set<String> all, Set<String> any, Set<String> none);
     PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search);
+    FacetedPageResponse<?> sortAndSpecificationSearchWithFacets(int pageNo, int pageSize, String sortBy, String search);
+    List<ChartSongResponse> getGlobalChart();
+    List<ChartSongResponse> getGenreChart(String genre);
+    long likeSong(Long id);
+    long unlikeSong(Long id);
+    /**
+     * @return url of the song's audio, ResourceNotFoundException when the song has none
+     */
+    String getSongUrl(Long id);
 }
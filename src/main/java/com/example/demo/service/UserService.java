@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import com.example.demo.dto.request.UpdateInfoRequest;
 import com.example.demo.dto.request.UserRequest;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.PageResponse;
 import com.example.demo.dto.response.PageResponseCriteria;
 import com.example.demo.dto.response.UserInfoResponse;
@@ -15,6 +16,7 @@ public interface UserService {
     UserInfoResponse getMyInfo();
     long updateMyInfo(UpdateInfoRequest request);
     PageResponse<?> getAllUsers(int pageNo, int pageSize, String sortBy);
+    CursorPageResponse<?> getAllUsersByCursor(int pageSize, String cursor);
     long addRoleToUser(String username, String roleName);
     long deleteRoleFromUser(String username, String roleName);
     PageResponseCriteria<?> sortAndCriteriaSearch(int offset, int pageSize, String sortBy, String... search);
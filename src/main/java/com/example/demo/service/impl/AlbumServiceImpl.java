@@ -1,11 +1,16 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.cache.PageCountCache;
+import com.example.demo.cache.SearchQueryCache;
 import com.example.demo.dto.request.AlbumRequestForArtist;
 import com.example.demo.dto.response.AlbumResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.PageResponse;
 import com.example.demo.dto.response.SearchAlbumResponse;
 import com.example.demo.exception.ImageUploadException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.CatalogIndex;
 import com.example.demo.model.Album;
 import com.example.demo.model.Artist;
 import com.example.demo.model.Song;
@@ -13,15 +18,19 @@ import com.example.demo.repository.AlbumRepository;
 import com.example.demo.repository.ArtistRepository;
 import com.example.demo.repository.search.AlbumSearchRepository;
 import com.example.demo.repository.specification.AlbumSpecificationBuilder;
-import com.example.demo.repository.specification.SearchOperator;
+import com.example.demo.repository.specification.ParsedSearch;
+import com.example.demo.repository.specification.SearchExpressionParser;
+import com.example.demo.repository.specification.SearchFieldRegistry;
 import com.example.demo.service.AlbumService;
 import com.example.demo.service.CloudinaryService;
+import com.example.demo.utils.CursorUtil;
 import com.example.demo.utils.SortUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -29,8 +38,6 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -39,6 +46,11 @@ public class AlbumServiceImpl implements AlbumService {
     private final ArtistRepository artistRepository;
     private final CloudinaryService cloudinaryService;
     private final AlbumSearchRepository albumSearchRepository;
+    private final PageCountCache pageCountCache;
+    private final SearchQueryCache searchQueryCache;
+    private final SearchFieldRegistry searchFieldRegistry;
+    private final CatalogCache catalogCache;
+    private final CatalogIndex catalogIndex;
 
     @Override
     @Transactional
@@ -66,11 +78,18 @@ public class AlbumServiceImpl implements AlbumService {
 
         albumRepository.save(album);
 
+        catalogCache.evictArtist(artist);
+        catalogIndex.indexAlbum(album);
+
         return album.getId();
     }
 
     @Override
     public AlbumResponse getAlbum(Long id) {
+        return catalogCache.getAlbum(id, this::loadAlbum);
+    }
+
+    private AlbumResponse loadAlbum(Long id) {
         Album album = albumRepository.findByIdWithAllFields(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Album not found"));
 
@@ -114,13 +133,19 @@ public class AlbumServiceImpl implements AlbumService {
             throw new ImageUploadException("Failed to upload image due to an I/O error ", e.getCause());
         }
 
+        catalogCache.evictAlbum(album);
+        catalogIndex.indexAlbum(album);
+
         return id;
     }
 
     @Override
     public long deleteAlbum(Long id) {
-        if (albumRepository.findById(id).isPresent())
+        albumRepository.findByIdWithAllFields(id).ifPresent(album -> {
             albumRepository.deleteById(id);
+            catalogCache.evictAlbum(album);
+            catalogIndex.removeAlbum(id);
+        });
         return id;
     }
 
@@ -128,9 +153,9 @@ public class AlbumServiceImpl implements AlbumService {
     public PageResponse<?> getAllAlbums(int pageNo, int pageSize, String sortBy) {
         Sort sort = SortUtil.resolveSortBy(sortBy);
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Album.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = albumRepository.findAllIds(pageable);
+        Slice<Long> ids = albumRepository.findAllIds(pageable);
 
         List<Album> albums = albumRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -139,18 +164,56 @@ public class AlbumServiceImpl implements AlbumService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("album:all", pageSize, albumRepository::count))
                 .items(searchAlbumResponses)
                 .build();
     }
 
+    @Override
+    public CursorPageResponse<?> getAllAlbumsByCursor(int pageSize, String cursor) {
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+
+        // One extra row tells whether there is a next page, so no COUNT query is needed
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        long afterId = StringUtils.hasLength(cursor) ? CursorUtil.decode(cursor).id() : 0;
+
+        List<Long> ids = albumRepository.findIdsAfter(afterId, limit);
+
+        boolean hasNext = ids.size() > pageSize;
+
+        List<Album> albums = albumRepository.findAllByIdsAndSort(hasNext ? ids.subList(0, pageSize) : ids, sort);
+
+        String nextCursor = null;
+        if (hasNext && !albums.isEmpty()) {
+            Album last = albums.get(albums.size() - 1);
+            nextCursor = CursorUtil.encode(last.getId(), last.getId());
+        }
+
+        return CursorPageResponse.builder()
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .items(albumsToSearchAlbumResponses(albums))
+                .build();
+    }
+
     @Override
     public PageResponse<?> getAlbumsByName(int pageNo, int pageSize, String sortBy, String name) {
         Sort sort = SortUtil.resolveSortBy(sortBy);
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Album.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = albumRepository.findAllIdsByName(name, pageable);
+        List<Long> matches = catalogIndex.searchAlbums(name);
+        if (matches.isEmpty()) {
+            return PageResponse.builder()
+                    .pageNo(pageNo)
+                    .pageSize(pageSize)
+                    .totalPage(0)
+                    .items(List.of())
+                    .build();
+        }
+
+        Slice<Long> ids = albumRepository.findAllIdsByIdIn(matches, pageable);
 
         List<Album> albums = albumRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -159,39 +222,26 @@ public class AlbumServiceImpl implements AlbumService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage((int) Math.ceil((double) matches.size() / pageSize))
                 .items(searchAlbumResponses)
                 .build();
     }
 
     @Override
     public PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search) {
-        AlbumSpecificationBuilder builder = new AlbumSpecificationBuilder();
-
-        if (StringUtils.hasLength(search)) {
-            Pattern pattern = Pattern.compile("([,']?)(\\w+)(!:|!~|!=|>=|<=|[:~=><])(\\w+)");
-            Matcher matcher = pattern.matcher(search);
-
-            while (matcher.find()) {
-                String andOrLogic = matcher.group(1);
-                String key = matcher.group(2);
-                String operator = matcher.group(3);
-                String value = matcher.group(4);
-
-                if (andOrLogic != null && (andOrLogic.equals(SearchOperator.AND_OPERATOR) ||
-                        andOrLogic.equals(SearchOperator.OR_OPERATOR))) {
-                    builder.with(andOrLogic, key, operator, value, null, null);
-                } else {
-                    builder.with(key, operator, value, null, null);
-                }
-            }
-        }
+        ParsedSearch<Album> parsed = searchQueryCache.get("album", search, sortBy, () -> {
+            AlbumSpecificationBuilder builder = new AlbumSpecificationBuilder();
+            SearchExpressionParser.parse(search, searchFieldRegistry.of(Album.class)).forEach(builder::with);
+            return new ParsedSearch<>(builder.build(), SortUtil.resolveSortBy(sortBy));
+        });
 
-        Sort sort = SortUtil.resolveSortBy(sortBy);
+        Sort sort = parsed.sort();
+
+        Pageable pageable = searchFieldRegistry.of(Album.class).pageRequest(pageNo, pageSize, sort);
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Specification<Album> specification = parsed.specification();
 
-        Page<Long> ids = albumSearchRepository.findIdsBySpecification(builder.build(), pageable);
+        Slice<Long> ids = albumSearchRepository.findIdsBySpecification(specification, pageable);
 
         List<Album> albums = albumRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -200,7 +250,7 @@ public class AlbumServiceImpl implements AlbumService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("album:search:" + search, pageSize, () -> albumSearchRepository.countBySpecification(specification)))
                 .items(searchAlbumResponses)
                 .build();
     }
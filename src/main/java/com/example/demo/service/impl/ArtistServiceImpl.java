@@ -1,12 +1,17 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.cache.PageCountCache;
+import com.example.demo.cache.SearchQueryCache;
 import com.example.demo.constant.GenreName;
+import com.example.demo.counter.EngagementCounters;
 import com.example.demo.dto.request.*;
 import com.example.demo.dto.response.ArtistResponse;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.PageResponse;
 import com.example.demo.dto.response.SearchArtistResponse;
-import com.example.demo.dto.response.SongResponse;
 import com.example.demo.exception.*;
+import com.example.demo.index.CatalogIndex;
 import com.example.demo.mapper.ArtistMapper;
 import com.example.demo.mapper.SongMapper;
 import com.example.demo.mapper.UserMapper;
@@ -14,34 +19,45 @@ import com.example.demo.model.*;
 import com.example.demo.repository.*;
 import com.example.demo.repository.search.ArtistSearchRepository;
 import com.example.demo.repository.specification.ArtistSpecificationBuilder;
-import com.example.demo.repository.specification.SearchOperator;
+import com.example.demo.repository.specification.ParsedSearch;
+import com.example.demo.repository.specification.SearchExpressionParser;
+import com.example.demo.repository.specification.SearchFieldRegistry;
 import com.example.demo.service.ArtistService;
 import com.example.demo.service.CloudinaryService;
-import com.example.demo.service.SongService;
+import com.example.demo.storage.MediaUploadExecutor;
+import com.example.demo.utils.CursorUtil;
+import com.example.demo.utils.SecurityUtil;
 import com.example.demo.utils.SortUtil;
+import com.example.demo.utils.TransactionUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ArtistServiceImpl implements ArtistService {
     private final ArtistRepository artistRepository;
     private final UserRepository userRepository;
@@ -54,8 +70,17 @@ public class ArtistServiceImpl implements ArtistService {
     private final GenreRepository genreRepository;
     private final AlbumRepository albumRepository;
     private final SongRepository songRepository;
-    private final SongService songService;
     private final ArtistSearchRepository artistSearchRepository;
+    private final PageCountCache pageCountCache;
+    private final SearchQueryCache searchQueryCache;
+    private final SearchFieldRegistry searchFieldRegistry;
+    private final CatalogCache catalogCache;
+    private final CatalogIndex catalogIndex;
+    private final EngagementRepository engagementRepository;
+    private final EngagementCounters engagementCounters;
+    private final UserDetailsService userDetailsService;
+    private final TransactionTemplate transactionTemplate;
+    private final MediaUploadExecutor mediaUploadExecutor;
 
     @Override
     @Transactional
@@ -68,7 +93,7 @@ public class ArtistServiceImpl implements ArtistService {
 
         Set<Role> roles = new HashSet<>();
         userRequest.getRoles().forEach(roleRequest -> {
-            Role role = roleRepository.findByNameWithUsers(roleRequest.getName())
+            Role role = roleRepository.findByName(roleRequest.getName())
                     .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
             roles.add(role);
         });
@@ -84,11 +109,17 @@ public class ArtistServiceImpl implements ArtistService {
 
         artistRepository.save(artist);
 
+        catalogIndex.indexArtist(artist);
+
         return artist.getId();
     }
 
     @Override
     public ArtistResponse getArtist(Long id) {
+        return catalogCache.getArtist(id, this::loadArtist);
+    }
+
+    private ArtistResponse loadArtist(Long id) {
         Artist artist = artistRepository.findWithSongsAndAlbums(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Artist not found"));
 
@@ -134,22 +165,47 @@ public class ArtistServiceImpl implements ArtistService {
             throw new ImageUploadException("Failed to upload image due to an I/O error ", e.getCause());
         }
 
+        catalogCache.evictArtist(artist);
+
         return id;
     }
 
     @Override
+    @Transactional
     public long deleteArtist(Long id) {
-        if (artistRepository.existsById(id))
+        artistRepository.findWithSongsAndAlbums(id).ifPresent(artist -> {
+            engagementRepository.deleteArtistFollows(id);
             artistRepository.deleteById(id);
+            catalogCache.evictAll();
+            // Albums go with the artist
+            catalogIndex.removeArtist(id);
+            artist.getAlbums().forEach(album -> catalogIndex.removeAlbum(album.getId()));
+        });
         return id;
     }
 
     @Override
-    @Transactional
-    public long addMySong(SongRequestForArtist songRequest) throws IOException{
+    public long addMySong(SongRequestForArtist songRequest) throws IOException {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         String username = securityContext.getAuthentication().getName();
 
+        // Fail fast before uploading, the checks are repeated inside the transaction
+        artistRepository.findByUsername(username).ifPresent(artist -> {
+            if (songRepository.existsByNameAndArtistId(songRequest.getName(), artist.getId()))
+                throw new DataInUseException("You already have a song with that name");
+        });
+
+        SongMedia media = uploadSongMedia(songRequest.getImageFile(), songRequest.getSongFile());
+
+        try {
+            return transactionTemplate.execute(status -> saveMySong(username, songRequest, media));
+        } catch (RuntimeException e) {
+            deleteSongMedia(media);
+            throw e;
+        }
+    }
+
+    private long saveMySong(String username, SongRequestForArtist songRequest, SongMedia media) {
         User user = userRepository.findByUsernameWithArtist(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Username not found"));
 
@@ -164,27 +220,9 @@ public class ArtistServiceImpl implements ArtistService {
         if (songExisted)
             throw new DataInUseException("You already have a song with that name");
 
-        MultipartFile imageFile = songRequest.getImageFile();
-        MultipartFile songFile = songRequest.getSongFile();
-
-        if (imageFile == null || imageFile.isEmpty())
-            throw new ImageUploadException("Failed to upload image");
-        if (songFile == null || songFile.isEmpty())
-            throw new AudioUploadException("Failed to upload audio");
-
-        String imageUrl = cloudinaryService.uploadImage(imageFile);
-        if (imageUrl == null) {
-            throw new ImageUploadException("Failed to upload image");
-        }
-
-        String songUrl = cloudinaryService.uploadAudio(songFile);
-        if (songUrl == null) {
-            throw new AudioUploadException("Failed to upload audio");
-        }
-
         Song song = songMapper.toSong(songRequest);
-        song.setImageUrl(imageUrl);
-        song.setSongUrl(songUrl);
+        song.setImageUrl(media.imageUrl());
+        song.setSongUrl(media.songUrl());
 
         Set<GenreName> genreNames = songRequest.getGenres().stream()
                 .map(GenreRequest::getName)
@@ -215,6 +253,9 @@ public class ArtistServiceImpl implements ArtistService {
 
         songRepository.save(song);
 
+        catalogCache.evictSong(song);
+        catalogIndex.indexSong(song);
+
         return song.getId();
     }
 
@@ -258,6 +299,9 @@ public class ArtistServiceImpl implements ArtistService {
 
         albumRepository.save(album);
 
+        catalogCache.evictArtist(artist);
+        catalogIndex.indexAlbum(album);
+
         return album.getId();
     }
 
@@ -290,17 +334,38 @@ public class ArtistServiceImpl implements ArtistService {
         if (!artist.getAlbums().contains(album))
             throw new AccessDenyException("You are not the artist of this album");
 
+        catalogCache.evictSong(song);
+
         song.saveAlbum(album);
 
+        catalogCache.evictSong(song);
+        catalogIndex.indexSong(song);
+
         return songId;
     }
 
     @Override
-    @Transactional
     public long updateMySong(Long songId, SongRequestForArtist songRequest) throws IOException {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         String username = securityContext.getAuthentication().getName();
 
+        // Fail fast before uploading, the checks are repeated inside the transaction
+        artistRepository.findByUsername(username).ifPresent(artist -> {
+            if (!songRepository.existsByIdAndArtistId(songId, artist.getId()))
+                throw new AccessDenyException("You are not one of the artists for this song");
+        });
+
+        SongMedia media = uploadSongMedia(songRequest.getImageFile(), songRequest.getSongFile());
+
+        try {
+            return transactionTemplate.execute(status -> saveMyUpdatedSong(username, songId, songRequest, media));
+        } catch (RuntimeException e) {
+            deleteSongMedia(media);
+            throw e;
+        }
+    }
+
+    private long saveMyUpdatedSong(String username, Long songId, SongRequestForArtist songRequest, SongMedia media) {
         User user = userRepository.findByUsernameWithArtist(username)
                 .orElseThrow(() -> new ResourceNotFoundException("Username not found"));
 
@@ -309,39 +374,21 @@ public class ArtistServiceImpl implements ArtistService {
         if (artist == null)
             throw new InvalidDataException("There seems to be an issue with your artist profile. Please contact support");
 
-        SongResponse songResponse = songService.getSong(songId);
-
-        if (!songResponse.getArtistIds().contains(artist.getId())
-                || !songResponse.getArtistNames().contains(artist.getName())) {
-            throw new AccessDenyException("You are not one of the artists for this song");
-        }
-
-        MultipartFile imageFile = songRequest.getImageFile();
-        MultipartFile songFile = songRequest.getSongFile();
-
-        if (imageFile == null || imageFile.isEmpty())
-            throw new ImageUploadException("Failed to upload image");
-        if (songFile == null || songFile.isEmpty())
-            throw new AudioUploadException("Failed to upload audio");
-
-        String imageUrl = cloudinaryService.uploadImage(imageFile);
-        if (imageUrl == null) {
-            throw new ImageUploadException("Failed to upload image");
-        }
-
-        String songUrl = cloudinaryService.uploadAudio(songFile);
-        if (songUrl == null) {
-            throw new AudioUploadException("Failed to upload audio");
-        }
-
         Song song = songRepository.findById(songId)
                 .orElseThrow(() -> new ResourceNotFoundException("Song not found"));
         if (!artist.getSongs().contains(song))
             throw new AccessDenyException("You are not the artist of this song");
 
+        catalogCache.evictSong(song);
+
+        // Deleted only once the new URLs are committed, a rollback leaves the song on its old media
+        SongMedia replaced = new SongMedia(
+                Objects.equals(song.getImageUrl(), media.imageUrl()) ? null : song.getImageUrl(),
+                Objects.equals(song.getSongUrl(), media.songUrl()) ? null : song.getSongUrl());
+
         songMapper.updateSong(song, songRequest);
-        song.setImageUrl(imageUrl);
-        song.setSongUrl(songUrl);
+        song.setImageUrl(media.imageUrl());
+        song.setSongUrl(media.songUrl());
 
         Set<GenreName> genreNames = songRequest.getGenres().stream()
                 .map(GenreRequest::getName)
@@ -370,6 +417,10 @@ public class ArtistServiceImpl implements ArtistService {
 
         artist.saveSong(song);
 
+        catalogCache.evictSong(song);
+        catalogIndex.indexSong(song);
+        TransactionUtil.afterCommit(() -> deleteSongMedia(replaced));
+
         return song.getId();
     }
 
@@ -407,6 +458,9 @@ public class ArtistServiceImpl implements ArtistService {
             throw new ImageUploadException("Failed to upload image due to an I/O error ", e.getCause());
         }
 
+        catalogCache.evictAlbum(album);
+        catalogIndex.indexAlbum(album);
+
         return album.getId();
     }
 
@@ -438,10 +492,13 @@ public class ArtistServiceImpl implements ArtistService {
             throw new ImageUploadException("Failed to upload image due to an I/O error ", e.getCause());
         }
 
+        catalogCache.evictArtist(artist);
+
         return artist.getId();
     }
 
     @Override
+    @Transactional
     public long deleteMySong(Long songId) {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         String username = securityContext.getAuthentication().getName();
@@ -454,7 +511,12 @@ public class ArtistServiceImpl implements ArtistService {
         if (artist == null)
             throw new InvalidDataException("There seems to be an issue with your artist profile. Please contact support");
 
-        songRepository.deleteById(songId);
+        songRepository.findByIdWithAllFields(songId).ifPresent(song -> {
+            engagementRepository.deleteSongLikes(songId);
+            songRepository.deleteById(songId);
+            catalogCache.evictSong(song);
+            catalogIndex.removeSong(songId);
+        });
 
         return songId;
     }
@@ -472,7 +534,11 @@ public class ArtistServiceImpl implements ArtistService {
         if (artist == null)
             throw new InvalidDataException("There seems to be an issue with your artist profile. Please contact support");
 
-        albumRepository.deleteById(albumId);
+        albumRepository.findByIdWithAllFields(albumId).ifPresent(album -> {
+            albumRepository.deleteById(albumId);
+            catalogCache.evictAlbum(album);
+            catalogIndex.removeAlbum(albumId);
+        });
 
         return albumId;
     }
@@ -506,19 +572,47 @@ public class ArtistServiceImpl implements ArtistService {
         if (!artist.getAlbums().contains(album))
             throw new AccessDenyException("You are not the artist of this album");
 
+        catalogCache.evictSong(song);
+
         song.setAlbum(null);
         album.setSongs(new HashSet<>());
 
+        catalogIndex.indexSong(song);
+
         return songId;
     }
 
+    @Override
+    public long followArtist(Long id) {
+        long userId = SecurityUtil.getCurrentUserId(userDetailsService);
+
+        if (engagementRepository.followArtist(userId, id))
+            engagementCounters.addFollowers(id, 1);
+        else if (!artistRepository.existsById(id))
+            throw new ResourceNotFoundException("Artist not found");
+
+        return id;
+    }
+
+    @Override
+    public long unfollowArtist(Long id) {
+        long userId = SecurityUtil.getCurrentUserId(userDetailsService);
+
+        if (engagementRepository.unfollowArtist(userId, id))
+            engagementCounters.addFollowers(id, -1);
+        else if (!artistRepository.existsById(id))
+            throw new ResourceNotFoundException("Artist not found");
+
+        return id;
+    }
+
     @Override
     public PageResponse<?> getAllArtists(int pageNo, int pageSize, String sortBy) {
         Sort sort = SortUtil.resolveSortBy(sortBy, "followers");
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Artist.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = artistRepository.findAllIds(pageable);
+        Slice<Long> ids = artistRepository.findAllIds(pageable);
 
         List<Artist> artists = artistRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -527,18 +621,61 @@ public class ArtistServiceImpl implements ArtistService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("artist:all", pageSize, artistRepository::count))
                 .items(artistResponses)
                 .build();
     }
 
+    @Override
+    public CursorPageResponse<?> getAllArtistsByCursor(int pageSize, String cursor) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "followers").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        // One extra row tells whether there is a next page, so no COUNT query is needed
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<KeysetRow> rows;
+        if (StringUtils.hasLength(cursor)) {
+            CursorUtil.Cursor after = CursorUtil.decode(cursor);
+            rows = artistRepository.findRowsByFollowersAfter(after.sortValue(), after.id(), limit);
+        } else {
+            rows = artistRepository.findFirstRowsByFollowers(limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<KeysetRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<Artist> artists = artistRepository.findAllByIdsAndSort(page.stream().map(KeysetRow::id).toList(), sort);
+
+        String nextCursor = null;
+        if (hasNext) {
+            KeysetRow last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.sortValue(), last.id());
+        }
+
+        return CursorPageResponse.builder()
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .items(artistsToArtistResponses(artists))
+                .build();
+    }
+
     @Override
     public PageResponse<?> getArtistsByName(int pageNo, int pageSize, String sortBy, String name) {
         Sort sort = SortUtil.resolveSortBy(sortBy, "followers");
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Artist.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = artistRepository.findAllIdsByName(name, pageable);
+        List<Long> matches = catalogIndex.searchArtists(name);
+        if (matches.isEmpty()) {
+            return PageResponse.builder()
+                    .pageNo(pageNo)
+                    .pageSize(pageSize)
+                    .totalPage(0)
+                    .items(List.of())
+                    .build();
+        }
+
+        Slice<Long> ids = artistRepository.findAllIdsByIdIn(matches, pageable);
 
         List<Artist> artists = artistRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -547,39 +684,26 @@ public class ArtistServiceImpl implements ArtistService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage((int) Math.ceil((double) matches.size() / pageSize))
                 .items(artistResponses)
                 .build();
     }
 
     @Override
     public PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search) {
-        ArtistSpecificationBuilder builder = new ArtistSpecificationBuilder();
-
-        if (StringUtils.hasLength(search)) {
-            Pattern pattern = Pattern.compile("([,']?)(\\w+)(!:|!~|!=|>=|<=|[:~=><])(\\w+)");
-            Matcher matcher = pattern.matcher(search);
-
-            while (matcher.find()) {
-                String andOrLogic = matcher.group(1);
-                String key = matcher.group(2);
-                String operator = matcher.group(3);
-                String value = matcher.group(4);
-
-                if (andOrLogic != null && (andOrLogic.equals(SearchOperator.AND_OPERATOR) ||
-                        andOrLogic.equals(SearchOperator.OR_OPERATOR))) {
-                    builder.with(andOrLogic, key, operator, value, null, null);
-                } else {
-                    builder.with(key, operator, value, null, null);
-                }
-            }
-        }
+        ParsedSearch<Artist> parsed = searchQueryCache.get("artist", search, sortBy, () -> {
+            ArtistSpecificationBuilder builder = new ArtistSpecificationBuilder();
+            SearchExpressionParser.parse(search, searchFieldRegistry.of(Artist.class)).forEach(builder::with);
+            return new ParsedSearch<>(builder.build(), SortUtil.resolveSortBy(sortBy, "followers"));
+        });
 
-        Sort sort = SortUtil.resolveSortBy(sortBy, "followers");
+        Sort sort = parsed.sort();
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Artist.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = artistSearchRepository.findIdsBySpecification(builder.build(), pageable);
+        Specification<Artist> specification = parsed.specification();
+
+        Slice<Long> ids = artistSearchRepository.findIdsBySpecification(specification, pageable);
 
         List<Artist> artists = artistRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -588,7 +712,7 @@ public class ArtistServiceImpl implements ArtistService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("artist:search:" + search, pageSize, () -> artistSearchRepository.countBySpecification(specification)))
                 .items(artistResponses)
                 .build();
     }
@@ -598,4 +722,69 @@ public class ArtistServiceImpl implements ArtistService {
                 .map(artistMapper::toSearchArtistResponse)
                 .toList();
     }
+
+    // Uploads image and audio concurrently, outside any transaction. If either upload fails the
+    // other one is removed again.
+    private SongMedia uploadSongMedia(MultipartFile imageFile, MultipartFile songFile) {
+        if (imageFile == null || imageFile.isEmpty())
+            throw new ImageUploadException("Failed to upload image");
+        if (songFile == null || songFile.isEmpty())
+            throw new AudioUploadException("Failed to upload audio");
+
+        CompletableFuture<String> imageUpload = mediaUploadExecutor.supplyAsync(() -> {
+            try {
+                return cloudinaryService.uploadImage(imageFile);
+            } catch (IOException e) {
+                throw new ImageUploadException("Failed to upload image due to an I/O error ", e);
+            }
+        });
+
+        CompletableFuture<String> audioUpload = mediaUploadExecutor.supplyAsync(() -> {
+            try {
+                return cloudinaryService.uploadAudio(songFile);
+            } catch (IOException e) {
+                throw new AudioUploadException("Failed to upload audio due to an I/O error ", e);
+            }
+        });
+
+        try {
+            CompletableFuture.allOf(imageUpload, audioUpload).join();
+        } catch (CompletionException e) {
+            // allOf only completes once both have, remove the one that succeeded
+            deleteSongMedia(new SongMedia(urlIfUploaded(imageUpload), urlIfUploaded(audioUpload)));
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+
+        SongMedia media = new SongMedia(imageUpload.join(), audioUpload.join());
+
+        if (media.imageUrl() == null || media.songUrl() == null) {
+            deleteSongMedia(media);
+            throw media.imageUrl() == null
+                    ? new ImageUploadException("Failed to upload image")
+                    : new AudioUploadException("Failed to upload audio");
+        }
+
+        return media;
+    }
+
+    private static String urlIfUploaded(CompletableFuture<String> upload) {
+        return upload.handle((url, e) -> e == null ? url : null).join();
+    }
+
+    private void deleteSongMedia(SongMedia media) {
+        for (String url : new String[]{media.imageUrl(), media.songUrl()}) {
+            if (url == null)
+                continue;
+            try {
+                cloudinaryService.deleteMedia(url);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to delete orphaned media {}", url, e);
+            }
+        }
+    }
+
+    private record SongMedia(String imageUrl, String songUrl) {
+    }
 }
@@ -8,6 +8,7 @@ import com.example.demo.dto.response.TokenResponse;
 import com.example.demo.exception.DataInUseException;
 import com.example.demo.exception.InvalidDataException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.CatalogIndex;
 import com.example.demo.mapper.UserMapper;
 import com.example.demo.model.Artist;
 import com.example.demo.model.Role;
@@ -44,6 +45,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final ArtistRepository artistRepository;
+    private final CatalogIndex catalogIndex;
 
     @Override
     public TokenResponse authenticate(SignInRequest request) {
@@ -78,16 +80,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             throw new DataInUseException("Username is already in use");
         }
 
-        Role userRole = roleRepository.findByNameWithUsers(RoleName.USER)
+        Role userRole = roleRepository.findByName(RoleName.USER)
                 .orElseThrow(() -> new ResourceNotFoundException("Role 'USER' not found"));
 
-        Set<Role> roles = new HashSet<>();
-        roles.add(userRole);
-
         User user = User.builder()
                 .username(request.getUsername())
                 .password(passwordEncoder.encode(request.getPassword()))
-                .roles(roles)
                 .build();
 
         user.saveRole(userRole);
@@ -135,6 +133,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         userRepository.save(user);
         artistRepository.save(artist);
 
+        catalogIndex.indexArtist(artist);
+
         String accessToken = jwtUtil.generateAccessToken(user);
         String refreshToken = jwtUtil.generateRefreshToken(user);
 
@@ -0,0 +1,26 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.ingest.ListeningEventQueue;
+import com.example.demo.service.ListeningService;
+import com.example.demo.utils.SecurityUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class ListeningServiceImpl implements ListeningService {
+    private final UserDetailsService userDetailsService;
+    private final ListeningEventQueue listeningEventQueue;
+
+    @Override
+    public long recordPlay(Long songId) {
+        long userId = SecurityUtil.getCurrentUserId(userDetailsService);
+
+        if (!listeningEventQueue.offer(userId, songId))
+            throw new TooManyRequestsException("Too many plays are being recorded, please retry later");
+
+        return songId;
+    }
+}
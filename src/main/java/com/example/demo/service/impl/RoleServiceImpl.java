@@ -1,5 +1,6 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.PrincipalCache;
 import com.example.demo.constant.PermissionName;
 import com.example.demo.constant.RoleName;
 import com.example.demo.dto.request.RoleRequest;
@@ -11,6 +12,7 @@ import com.example.demo.repository.RoleRepository;
 import com.example.demo.service.RoleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -19,6 +21,7 @@ import java.util.List;
 public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final PrincipalCache principalCache;
 
     @Override
     public int addRole(RoleRequest request) {
@@ -48,9 +51,16 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional
     public int deleteRole(int id) {
         Role role = getById(id);
+
+        // User owns user_roles, so the assignments have to go before the role
+        roleRepository.deleteUserRoles(id);
         roleRepository.delete(role);
+
+        principalCache.invalidateAll();
+
         return id;
     }
 
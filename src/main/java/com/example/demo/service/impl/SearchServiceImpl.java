@@ -0,0 +1,26 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.response.SuggestionResponse;
+import com.example.demo.index.CatalogSuggestions;
+import com.example.demo.service.SearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class SearchServiceImpl implements SearchService {
+    private final CatalogSuggestions catalogSuggestions;
+    private final int maxLimit;
+
+    public SearchServiceImpl(CatalogSuggestions catalogSuggestions,
+                             @Value("${search.suggest.maxLimit:20}") int maxLimit) {
+        this.catalogSuggestions = catalogSuggestions;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        return catalogSuggestions.suggest(prefix, Math.max(1, Math.min(limit, maxLimit)));
+    }
+}
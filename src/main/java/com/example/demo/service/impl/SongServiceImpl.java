@@ -1,14 +1,23 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CatalogCache;
+import com.example.demo.cache.PageCountCache;
+import com.example.demo.cache.SearchQueryCache;
+import com.example.demo.chart.TopCharts;
 import com.example.demo.constant.GenreName;
+import com.example.demo.counter.EngagementCounters;
 import com.example.demo.dto.request.ArtistRequest;
 import com.example.demo.dto.request.GenreRequest;
 import com.example.demo.dto.request.SongRequest;
+import com.example.demo.dto.response.ChartSongResponse;
+import com.example.demo.dto.response.CursorPageResponse;
+import com.example.demo.dto.response.FacetedPageResponse;
 import com.example.demo.dto.response.PageResponse;
 import com.example.demo.dto.response.SearchSongResponse;
 import com.example.demo.dto.response.SongResponse;
 import com.example.demo.exception.InvalidDataException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.CatalogIndex;
 import com.example.demo.mapper.SongMapper;
 import com.example.demo.model.Album;
 import com.example.demo.model.Artist;
@@ -16,23 +25,28 @@ import com.example.demo.model.Genre;
 import com.example.demo.model.Song;
 import com.example.demo.repository.*;
 import com.example.demo.repository.search.SongSearchRepository;
-import com.example.demo.repository.specification.SearchOperator;
+import com.example.demo.repository.specification.ParsedSearch;
+import com.example.demo.repository.specification.SearchExpressionParser;
+import com.example.demo.repository.specification.SearchFieldRegistry;
 import com.example.demo.repository.specification.SongSpecificationBuilder;
 import com.example.demo.service.SongService;
+import com.example.demo.utils.CursorUtil;
+import com.example.demo.utils.SecurityUtil;
 import com.example.demo.utils.SortUtil;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,6 +58,19 @@ public class SongServiceImpl implements SongService {
     private final ArtistRepository artistRepository;
     private final AlbumRepository albumRepository;
     private final SongSearchRepository songSearchRepository;
+    private final PageCountCache pageCountCache;
+    private final SearchQueryCache searchQueryCache;
+    private final SearchFieldRegistry searchFieldRegistry;
+    private final CatalogCache catalogCache;
+    private final CatalogIndex catalogIndex;
+    private final EngagementRepository engagementRepository;
+    private final EngagementCounters engagementCounters;
+    private final TopCharts topCharts;
+    private final UserDetailsService userDetailsService;
+
+    // Caps the ids a faceted specification search loads to count
+    @Value("${search.facets.maxHits:100000}")
+    private int maxFacetHits;
 
     @Override
     @Transactional
@@ -77,11 +104,18 @@ public class SongServiceImpl implements SongService {
 
         songRepository.save(song);
 
+        catalogCache.evictSong(song);
+        catalogIndex.indexSong(song);
+
         return song.getId();
     }
 
     @Override
     public SongResponse getSong(Long id) {
+        return catalogCache.getSong(id, this::loadSong);
+    }
+
+    private SongResponse loadSong(Long id) {
         Song song = songRepository.findByIdWithAllFields(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Song not found"));
 
@@ -126,6 +160,8 @@ public class SongServiceImpl implements SongService {
         if (!requestSongName.equals(song.getName()))
             throw new InvalidDataException("Request song name does not match with song name with id: " + id);
 
+        catalogCache.evictSong(song);
+
         songMapper.updateSong(song, request);
 
         // Delete genres, artists, album
@@ -163,13 +199,21 @@ public class SongServiceImpl implements SongService {
         artists.forEach(song::saveArtist);
         song.saveAlbum(album);
 
+        catalogCache.evictSong(song);
+        catalogIndex.indexSong(song);
+
         return song.getId();
     }
 
     @Override
+    @Transactional
     public long deleteSong(Long id) {
-        if (songRepository.existsById(id))
+        songRepository.findByIdWithAllFields(id).ifPresent(song -> {
+            engagementRepository.deleteSongLikes(id);
             songRepository.deleteById(id);
+            catalogCache.evictSong(song);
+            catalogIndex.removeSong(id);
+        });
         return id;
     }
 
@@ -177,9 +221,9 @@ public class SongServiceImpl implements SongService {
     public PageResponse<?> getAllSongs(int pageNo, int pageSize, String sortBy) {
         Sort sort = SortUtil.resolveSortBy(sortBy, "likeCount");
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Song.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = songRepository.findAllIds(pageable);
+        Slice<Long> ids = songRepository.findAllIds(pageable);
 
         List<Song> songs = songRepository.findAllByIdsAndSort(ids.toList(), sort);
 
@@ -188,18 +232,70 @@ public class SongServiceImpl implements SongService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("song:all", pageSize, songRepository::count))
                 .items(searchSongResponses)
                 .build();
     }
 
+    @Override
+    public CursorPageResponse<?> getAllSongsByCursor(int pageSize, String cursor) {
+        Sort sort = Sort.by(Sort.Direction.DESC, "likeCount").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        // One extra row tells whether there is a next page, so no COUNT query is needed
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<KeysetRow> rows;
+        if (StringUtils.hasLength(cursor)) {
+            CursorUtil.Cursor after = CursorUtil.decode(cursor);
+            rows = songRepository.findRowsByLikeCountAfter(after.sortValue(), after.id(), limit);
+        } else {
+            rows = songRepository.findFirstRowsByLikeCount(limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<KeysetRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        List<Song> songs = songRepository.findAllByIdsAndSort(page.stream().map(KeysetRow::id).toList(), sort);
+
+        String nextCursor = null;
+        if (hasNext) {
+            KeysetRow last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.sortValue(), last.id());
+        }
+
+        return CursorPageResponse.builder()
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .items(songsToSearchSongResponses(songs))
+                .build();
+    }
+
     @Override
     public PageResponse<?> getSongsByName(int pageNo, int pageSize, String sortBy, String name) {
+        return getSongsByIds(pageNo, pageSize, sortBy, catalogIndex.searchSongs(name));
+    }
+
+    @Override
+    public FacetedPageResponse<?> getSongsByNameWithFacets(int pageNo, int pageSize, String sortBy, String name) {
+        List<Long> matches = catalogIndex.searchSongs(name);
+        return withFacets(getSongsByIds(pageNo, pageSize, sortBy, matches), matches);
+    }
+
+    private PageResponse<?> getSongsByIds(int pageNo, int pageSize, String sortBy, List<Long> matches) {
         Sort sort = SortUtil.resolveSortBy(sortBy, "likeCount");
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Song.class).pageRequest(pageNo, pageSize, sort);
+
+        if (matches.isEmpty()) {
+            return PageResponse.builder()
+                    .pageNo(pageNo)
+                    .pageSize(pageSize)
+                    .totalPage(0)
+                    .items(List.of())
+                    .build();
+        }
 
-        Page<Long> ids = songRepository.findAllIdsByName(name, pageable);
+        Slice<Long> ids = songRepository.findAllIdsByIdIn(matches, pageable);
 
         List<Song> songs = songRepository.findAllByIdsAndSort(ids.toList(), sort);
 
@@ -208,7 +304,7 @@ public class SongServiceImpl implements SongService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage((int) Math.ceil((double) matches.size() / pageSize))
                 .items(searchSongResponses)
                 .build();
     }
@@ -217,9 +313,9 @@ public class SongServiceImpl implements SongService {
     public PageResponse<?> getSongsByGenre(int pageNo, int pageSize, String sortBy, Integer genreId) {
         Sort sort = SortUtil.resolveSortBy(sortBy, "likeCount");
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(Song.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = songRepository.findAllIdsByGenre(genreId, pageable);
+        Slice<Long> ids = songRepository.findAllIdsByGenre(genreId, pageable);
 
         List<Song> songs = songRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -228,40 +324,56 @@ public class SongServiceImpl implements SongService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("song:genre:" + genreId, pageSize, () -> songRepository.countAllByGenre(genreId)))
                 .items(searchSongResponses)
                 .build();
     }
 
     @Override
-    public PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search) {
+    public PageResponse<?> getSongsByGenres(int pageNo, int pageSize, Set<String> all, Set<String> any, Set<String> none) {
+        Set<GenreName> allGenres = toGenreNames(all);
+        Set<GenreName> anyGenres = toGenreNames(any);
+        if (allGenres.isEmpty() && anyGenres.isEmpty())
+            throw new InvalidDataException("At least one genre in all or any is required");
+
+        long[] matches = catalogIndex.matchSongGenres(allGenres, anyGenres, toGenreNames(none));
+
+        Sort sort = Sort.by(Sort.Direction.DESC, "likeCount").and(Sort.by(Sort.Direction.DESC, "id"));
+
+        // Ranked in memory, only the ids of the page reach the database
+        Pageable pageable = PageRequest.of(pageNo, pageSize);
+        List<Long> ids = topCharts.rankByLikes(matches, pageable.getOffset(), pageSize);
 
-        SongSpecificationBuilder builder = new SongSpecificationBuilder();
-
-        if (StringUtils.hasLength(search)) {
-            Pattern pattern = Pattern.compile("([,']?)(\\w+)(!:|!~|!=|>=|<=|[:~=><])(\\w+)");
-            Matcher matcher = pattern.matcher(search);
-
-            while (matcher.find()) {
-                String andOrLogic = matcher.group(1);
-                String key = matcher.group(2);
-                String operator = matcher.group(3);
-                String value = matcher.group(4);
-
-                if (andOrLogic != null && (andOrLogic.equals(SearchOperator.AND_OPERATOR) ||
-                        andOrLogic.equals(SearchOperator.OR_OPERATOR))) {
-                    builder.with(andOrLogic, key, operator, value, null, null);
-                } else {
-                    builder.with(key, operator, value, null, null);
-                }
-            }
+        List<Song> songs = ids.isEmpty() ? List.of() : songRepository.findAllByIdsAndSort(ids, sort);
+
+        return PageResponse.builder()
+                .pageNo(pageNo)
+                .pageSize(pageSize)
+                .totalPage((int) Math.ceil((double) matches.length / pageSize))
+                .items(songsToSearchSongResponses(songs))
+                .build();
+    }
+
+    private static Set<GenreName> toGenreNames(Set<String> genres) {
+        if (genres == null) {
+            return Set.of();
         }
+        return genres.stream()
+                .map(genre -> GenreName.valueOf(genre.toUpperCase()))
+                .collect(Collectors.toSet());
+    }
 
-        Sort sort = SortUtil.resolveSortBy(sortBy, "likeCount");
+    @Override
+    public PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search) {
+        ParsedSearch<Song> parsed = parseSearch(search, sortBy);
+
+        Sort sort = parsed.sort();
+
+        Pageable pageable = searchFieldRegistry.of(Song.class).pageRequest(pageNo, pageSize, sort);
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Specification<Song> specification = parsed.specification();
 
-        Page<Long> ids = songSearchRepository.findIdsBySpecification(builder.build(), pageable);
+        Slice<Long> ids = songSearchRepository.findIdsBySpecification(specification, pageable);
 
         List<Song> songs = songRepository.findAllByIdsAndSort(ids.getContent(), sort);
 
@@ -270,11 +382,80 @@ public class SongServiceImpl implements SongService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("song:search:" + search, pageSize, () -> songSearchRepository.countBySpecification(specification)))
                 .items(searchSongResponses)
                 .build();
     }
 
+    @Override
+    public FacetedPageResponse<?> sortAndSpecificationSearchWithFacets(int pageNo, int pageSize, String sortBy, String search) {
+        PageResponse<?> page = sortAndSpecificationSearch(pageNo, pageSize, sortBy, search);
+
+        // One query for every matching id, the counts themselves are taken in memory
+        List<Long> matches = songSearchRepository.findAllIdsBySpecification(parseSearch(search, sortBy).specification(), maxFacetHits);
+
+        return withFacets(page, matches);
+    }
+
+    private ParsedSearch<Song> parseSearch(String search, String sortBy) {
+        return searchQueryCache.get("song", search, sortBy, () -> {
+            SongSpecificationBuilder builder = new SongSpecificationBuilder();
+            SearchExpressionParser.parse(search, searchFieldRegistry.of(Song.class)).forEach(builder::with);
+            return new ParsedSearch<>(builder.build(), SortUtil.resolveSortBy(sortBy, "likeCount"));
+        });
+    }
+
+    private FacetedPageResponse<?> withFacets(PageResponse<?> page, List<Long> matches) {
+        return FacetedPageResponse.builder()
+                .pageNo(page.getPageNo())
+                .pageSize(page.getPageSize())
+                .totalPage(page.getTotalPage())
+                .items(page.getItems())
+                .facets(catalogIndex.countSongFacets(matches))
+                .build();
+    }
+
+    @Override
+    public List<ChartSongResponse> getGlobalChart() {
+        return topCharts.getGlobalChart();
+    }
+
+    @Override
+    public List<ChartSongResponse> getGenreChart(String genre) {
+        return topCharts.getGenreChart(GenreName.valueOf(genre.toUpperCase()));
+    }
+
+    @Override
+    public long likeSong(Long id) {
+        long userId = SecurityUtil.getCurrentUserId(userDetailsService);
+
+        if (engagementRepository.likeSong(userId, id))
+            engagementCounters.addLikes(id, 1);
+        else if (!songRepository.existsById(id))
+            throw new ResourceNotFoundException("Song not found");
+
+        return id;
+    }
+
+    @Override
+    public long unlikeSong(Long id) {
+        long userId = SecurityUtil.getCurrentUserId(userDetailsService);
+
+        if (engagementRepository.unlikeSong(userId, id))
+            engagementCounters.addLikes(id, -1);
+        else if (!songRepository.existsById(id))
+            throw new ResourceNotFoundException("Song not found");
+
+        return id;
+    }
+
+    @Override
+    public String getSongUrl(Long id) {
+        return songRepository.findSongUrlById(id)
+                .filter(StringUtils::hasText)
+                .orElseThrow(() -> new ResourceNotFoundException("Song media not found"));
+    }
+
     // List<Song> -> List<SearchSongResponse>
     private List<SearchSongResponse> songsToSearchSongResponses(List<Song> songs) {
         return songs.stream()
@@ -1,5 +1,6 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.TokenDenylist;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.model.Token;
 import com.example.demo.repository.TokenRepository;
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class TokenServiceImpl implements TokenService {
     private final TokenRepository tokenRepository;
+    private final TokenDenylist tokenDenylist;
 
     @Override
     @Transactional
@@ -29,6 +31,7 @@ public class TokenServiceImpl implements TokenService {
     public String deleteToken(String username) {
         Token token = getByUsername(username);
         tokenRepository.delete(token);
+        tokenDenylist.revoke(token.getAccessToken());
         return "Token deleted";
     }
 
@@ -1,9 +1,13 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.PageCountCache;
+import com.example.demo.cache.PrincipalCache;
+import com.example.demo.cache.SearchQueryCache;
 import com.example.demo.constant.RoleName;
 import com.example.demo.dto.request.RoleRequest;
 import com.example.demo.dto.request.UpdateInfoRequest;
 import com.example.demo.dto.request.UserRequest;
+import com.example.demo.dto.response.CursorPageResponse;
 import com.example.demo.dto.response.PageResponse;
 import com.example.demo.dto.response.PageResponseCriteria;
 import com.example.demo.dto.response.UserDetailsResponse;
@@ -17,16 +21,20 @@ import com.example.demo.model.User;
 import com.example.demo.repository.RoleRepository;
 import com.example.demo.repository.search.UserSearchRepository;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.specification.SearchOperator;
+import com.example.demo.repository.specification.ParsedSearch;
+import com.example.demo.repository.specification.SearchExpressionParser;
+import com.example.demo.repository.specification.SearchFieldRegistry;
 import com.example.demo.repository.specification.UserSpecificationBuilder;
 import com.example.demo.service.UserService;
+import com.example.demo.utils.CursorUtil;
 import com.example.demo.utils.SortUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -36,8 +44,6 @@ import org.springframework.util.StringUtils;
 
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,6 +55,10 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
     private final UserSearchRepository userSearchRepository;
+    private final PageCountCache pageCountCache;
+    private final SearchQueryCache searchQueryCache;
+    private final SearchFieldRegistry searchFieldRegistry;
+    private final PrincipalCache principalCache;
 
     @Override
     @Transactional
@@ -100,7 +110,6 @@ public class UserServiceImpl implements UserService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
         // Delete old roles from user
-        user.getRoles().forEach(role -> role.getUsers().remove(user));
         user.getRoles().clear();
 
         Set<RoleName> roleNames = request.getRoles().stream()
@@ -114,12 +123,16 @@ public class UserServiceImpl implements UserService {
 
         roles.forEach(user::saveRole);
 
+        principalCache.invalidate(user.getUsername());
+
         return user.getId();
     }
     @Override
     public long deleteUser(Long id) {
-        if (userRepository.existsById(id))
-            userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            principalCache.invalidate(user.getUsername());
+        });
         return id;
     }
 
@@ -150,6 +163,8 @@ public class UserServiceImpl implements UserService {
 
         user.getAddresses().forEach(user::saveAddress);
 
+        principalCache.invalidate(username);
+
         return user.getId();
     }
 
@@ -158,9 +173,9 @@ public class UserServiceImpl implements UserService {
 
         Sort sort = SortUtil.resolveSortBy(sortBy);
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Pageable pageable = searchFieldRegistry.of(User.class).pageRequest(pageNo, pageSize, sort);
 
-        Page<Long> ids = userRepository.findAllIds(pageable);
+        Slice<Long> ids = userRepository.findAllIds(pageable);
 
         List<User> users = userRepository.findAllByIdsAndSort(ids.toList(), sort);
 
@@ -171,7 +186,39 @@ public class UserServiceImpl implements UserService {
         return PageResponse.builder()
                 .pageNo(pageNo)
                 .pageSize(pageSize)
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("user:all", pageSize, userRepository::count))
+                .items(result)
+                .build();
+    }
+
+    @Override
+    public CursorPageResponse<?> getAllUsersByCursor(int pageSize, String cursor) {
+        Sort sort = Sort.by(Sort.Direction.ASC, "id");
+
+        // One extra row tells whether there is a next page, so no COUNT query is needed
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        long afterId = StringUtils.hasLength(cursor) ? CursorUtil.decode(cursor).id() : 0;
+
+        List<Long> ids = userRepository.findIdsAfter(afterId, limit);
+
+        boolean hasNext = ids.size() > pageSize;
+
+        List<User> users = userRepository.findAllByIdsAndSort(hasNext ? ids.subList(0, pageSize) : ids, sort);
+
+        String nextCursor = null;
+        if (hasNext && !users.isEmpty()) {
+            User last = users.get(users.size() - 1);
+            nextCursor = CursorUtil.encode(last.getId(), last.getId());
+        }
+
+        List<UserDetailsResponse> result = users.stream()
+                .map(userMapper::toUserDetailsResponse)
+                .toList();
+
+        return CursorPageResponse.builder()
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
                 .items(result)
                 .build();
     }
@@ -180,12 +227,14 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public long addRoleToUser(String username, String roleName) {
         User user = getUserByUsernameWithRoles(username);
-        Role role = getRoleByNameWithUsers(username);
+        Role role = getRoleByName(roleName);
 
         if (!user.getRoles().contains(role)) {
             user.saveRole(role);
         }
 
+        principalCache.invalidate(username);
+
         return user.getId();
     }
 
@@ -193,13 +242,14 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public long deleteRoleFromUser(String username, String roleName) {
         User user = getUserByUsernameWithRoles(username);
-        Role role = getRoleByNameWithUsers(username);
+        Role role = getRoleByName(roleName);
 
-        if (user.getRoles().contains(role) && role.getUsers().contains(user)) {
-            role.getUsers().remove(user);
-            user.getRoles().remove(role);
+        if (user.getRoles().contains(role)) {
+            user.removeRole(role);
         }
 
+        principalCache.invalidate(username);
+
         return user.getId();
     }
 
@@ -210,33 +260,19 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public PageResponse<?> sortAndSpecificationSearch(int pageNo, int pageSize, String sortBy, String search) {
+        ParsedSearch<User> parsed = searchQueryCache.get("user", search, sortBy, () -> {
+            UserSpecificationBuilder builder = new UserSpecificationBuilder();
+            SearchExpressionParser.parse(search, searchFieldRegistry.of(User.class)).forEach(builder::with);
+            return new ParsedSearch<>(builder.build(), SortUtil.resolveSortBy(sortBy));
+        });
 
-        UserSpecificationBuilder builder = new UserSpecificationBuilder();
-
-        if (StringUtils.hasLength(search)) {
-            Pattern pattern = Pattern.compile("([,']?)(\\w+)(!:|!~|!=|>=|<=|[:~=><])(\\w+)");
-            Matcher matcher = pattern.matcher(search);
-
-            while (matcher.find()) {
-                String andOrLogic = matcher.group(1);
-                String key = matcher.group(2);
-                String operator = matcher.group(3);
-                String value = matcher.group(4);
-
-                if (andOrLogic != null && (andOrLogic.equals(SearchOperator.AND_OPERATOR) ||
-                                           andOrLogic.equals(SearchOperator.OR_OPERATOR))) {
-                    builder.with(andOrLogic, key, operator, value, null, null);
-                } else {
-                    builder.with(key, operator, value, null, null);
-                }
-            }
-        }
+        Sort sort = parsed.sort();
 
-        Sort sort = SortUtil.resolveSortBy(sortBy);
+        Pageable pageable = searchFieldRegistry.of(User.class).pageRequest(pageNo, pageSize, sort);
 
-        Pageable pageable = PageRequest.of(pageNo, pageSize, sort);
+        Specification<User> specification = parsed.specification();
 
-        Page<Long> ids = userSearchRepository.findIdsBySpecification(builder.build(), pageable);
+        Slice<Long> ids = userSearchRepository.findIdsBySpecification(specification, pageable);
 
         List<User> users = userRepository.findAllByIdsAndSort(ids.toList(), sort);
 
@@ -247,7 +283,7 @@ public class UserServiceImpl implements UserService {
         return PageResponse.builder()
                 .pageNo(pageable.getPageNumber())
                 .pageSize(pageable.getPageSize())
-                .totalPage(ids.getTotalPages())
+                .totalPage(pageCountCache.totalPages("user:search:" + search, pageSize, () -> userSearchRepository.countBySpecification(specification)))
                 .items(result)
                 .build();
     }
@@ -257,8 +293,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Username not found"));
     }
 
-    private Role getRoleByNameWithUsers(String roleName) {
-        return roleRepository.findByNameWithUsers(RoleName.valueOf(roleName))
+    private Role getRoleByName(String roleName) {
+        return roleRepository.findByName(RoleName.valueOf(roleName))
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found"));
     }
 }
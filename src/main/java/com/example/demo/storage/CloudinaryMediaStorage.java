@@ -0,0 +1,48 @@
+package com.example.demo.storage;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.example.demo.constant.MediaKind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "media.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryMediaStorage implements MediaStorage {
+    // .../<resource_type>/upload/v<version>/<public_id>.<format>
+    private static final Pattern URL_PATTERN = Pattern.compile("/(image|video|raw)/upload/(?:v\\d+/)?(.+?)(?:\\.[^./]+)?$");
+
+    private final Cloudinary cloudinary;
+
+    // uploadLarge sends the stream in chunks of this size, which bounds the memory used per upload
+    @Value("${media.cloudinary.chunkSize:6000000}")
+    private int chunkSize;
+
+    @Override
+    public String store(InputStream content, long size, MediaKind kind, String filename) throws IOException {
+        Map params = ObjectUtils.asMap(
+                "resource_type", kind == MediaKind.AUDIO ? "video" : "image",
+                "chunk_size", chunkSize);
+        try (content) {
+            Map uploadResult = cloudinary.uploader().uploadLarge(content, params);
+            return (String) uploadResult.get("url");
+        }
+    }
+
+    @Override
+    public void delete(String url) throws IOException {
+        Matcher matcher = URL_PATTERN.matcher(url);
+        if (matcher.find()) {
+            cloudinary.uploader().destroy(matcher.group(2), ObjectUtils.asMap("resource_type", matcher.group(1)));
+        }
+    }
+}
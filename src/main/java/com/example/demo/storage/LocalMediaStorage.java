@@ -0,0 +1,130 @@
+package com.example.demo.storage;
+
+import com.example.demo.constant.MediaKind;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Stores media on local disk under the SHA-256 of its content, so identical uploads share one file
+ * and a stored file never changes once written.
+ */
+@Component
+@ConditionalOnProperty(name = "media.storage", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+    private static final Pattern KEY_PATTERN = Pattern.compile("^[0-9a-f]{64}(\\.[A-Za-z0-9]{1,10})?$");
+    private static final String TMP_FOLDER = "tmp";
+    private static final String REFERENCED_SQL = """
+            SELECT EXISTS (SELECT 1 FROM song WHERE image_url = ? OR song_url = ?)
+                OR EXISTS (SELECT 1 FROM album WHERE image_url = ?)
+                OR EXISTS (SELECT 1 FROM artist WHERE image_url = ?)""";
+
+    private final Path root;
+    private final String baseUrl;
+    private final JdbcTemplate jdbcTemplate;
+
+    public LocalMediaStorage(@Value("${media.local.root:./media}") String root,
+                             @Value("${media.local.baseUrl:/media}") String baseUrl,
+                             JdbcTemplate jdbcTemplate) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl;
+        this.jdbcTemplate = jdbcTemplate;
+        Files.createDirectories(this.root.resolve(TMP_FOLDER));
+        for (MediaKind kind : MediaKind.values()) {
+            Files.createDirectories(this.root.resolve(folder(kind)));
+        }
+    }
+
+    @Override
+    public String store(InputStream content, long size, MediaKind kind, String filename) throws IOException {
+        Path temp = Files.createTempFile(root.resolve(TMP_FOLDER), "upload-", null);
+        MessageDigest digest = sha256();
+
+        try (InputStream in = new DigestInputStream(content, digest)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+
+            String key = HexFormat.of().formatHex(digest.digest()) + extension(filename);
+            // Same content means same key, so replacing a concurrent upload of the same file is harmless
+            Files.move(temp, root.resolve(folder(kind)).resolve(key), StandardCopyOption.ATOMIC_MOVE);
+
+            return baseUrl + "/" + folder(kind) + "/" + key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Removes the file unless a row still references it, since an identical earlier upload shares
+     * the same file. An identical upload saved concurrently can still lose its file, re-uploading
+     * restores it.
+     */
+    @Override
+    public void delete(String url) throws IOException {
+        Optional<Path> file = localPath(url);
+        if (file.isEmpty() || isReferenced(url)) {
+            return;
+        }
+        Files.deleteIfExists(file.get());
+    }
+
+    private boolean isReferenced(String url) {
+        Boolean referenced = jdbcTemplate.queryForObject(REFERENCED_SQL, Boolean.class, url, url, url, url);
+        return Boolean.TRUE.equals(referenced);
+    }
+
+    @Override
+    public Optional<Path> localPath(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        for (MediaKind kind : MediaKind.values()) {
+            String prefix = baseUrl + "/" + folder(kind) + "/";
+            if (url.startsWith(prefix)) {
+                return resolve(kind, url.substring(prefix.length()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Path> resolve(MediaKind kind, String key) {
+        if (!KEY_PATTERN.matcher(key).matches()) {
+            return Optional.empty();
+        }
+        Path file = root.resolve(folder(kind)).resolve(key);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private String folder(MediaKind kind) {
+        return kind.name().toLowerCase();
+    }
+
+    private String extension(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        if (extension == null || !extension.matches("[A-Za-z0-9]{1,10}")) {
+            return "";
+        }
+        return "." + extension.toLowerCase();
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.storage;
+
+import com.example.demo.constant.MediaKind;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Blob backend for uploaded images and audio. Implementations must consume {@code content} as a
+ * stream and never buffer the whole upload in memory.
+ */
+public interface MediaStorage {
+    /**
+     * @param filename original file name, only used to keep the extension
+     * @return the URL the stored media is served from
+     */
+    String store(InputStream content, long size, MediaKind kind, String filename) throws IOException;
+
+    /**
+     * Removes media returned by {@link #store}, used to clean up uploads whose database write failed.
+     */
+    void delete(String url) throws IOException;
+
+    /**
+     * @return the local file behind a URL returned by {@link #store}, if this backend keeps media on disk
+     */
+    default Optional<Path> localPath(String url) {
+        return Optional.empty();
+    }
+}
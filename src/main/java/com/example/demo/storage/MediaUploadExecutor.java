@@ -0,0 +1,48 @@
+package com.example.demo.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blob store uploads off the request thread. Uploads are pure network waits, so they follow
+ * the virtual-thread switch.
+ * <p>
+ * Not an {@link java.util.concurrent.Executor} bean on purpose: one would replace Boot's
+ * auto-configured {@code applicationTaskExecutor}. When the pool and its queue are full the
+ * request thread runs the upload itself, so an upload is never rejected after its sibling has
+ * already started.
+ */
+@Component
+public class MediaUploadExecutor {
+    private final ExecutorService executor;
+
+    public MediaUploadExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                               @Value("${media.upload.poolSize:16}") int poolSize) {
+        if (virtualThreads) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("media-upload-", 0).factory());
+        } else {
+            executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(poolSize * 4),
+                    Thread.ofPlatform().name("media-upload-", 0).factory(),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> upload) {
+        return CompletableFuture.supplyAsync(upload, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.utils;
+
+import com.example.demo.exception.InvalidDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor holding the sort key and id of the last row of a page.
+ */
+public class CursorUtil {
+    public static String encode(long sortValue, long id) {
+        String raw = sortValue + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int separator = raw.indexOf(':');
+            return new Cursor(Long.parseLong(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidDataException("Invalid cursor");
+        }
+    }
+
+    public record Cursor(long sortValue, long id) {
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.demo.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -32,6 +34,19 @@ public class JwtUtil {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuer;
 
+    // Keys and parsers are immutable and thread-safe, so they are built once per token type
+    private final Map<TokenType, Key> keys = new EnumMap<>(TokenType.class);
+    private final Map<TokenType, JwtParser> parsers = new EnumMap<>(TokenType.class);
+
+    @PostConstruct
+    void init() {
+        keys.put(TokenType.ACCESS_TOKEN, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey)));
+        keys.put(TokenType.REFRESH_TOKEN, Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshKey)));
+        keys.forEach((tokenType, key) -> parsers.put(tokenType, Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()));
+    }
+
     public String generateAccessToken(UserDetails userDetails) {
         return generateAccessToken(Map.of("scope", buildScope(userDetails.getAuthorities())), userDetails);
     }
@@ -63,8 +78,16 @@ public class JwtUtil {
     }
 
     public boolean isValidToken(String token, TokenType tokenType, UserDetails userDetails) {
-        String username = extractUsername(token, tokenType);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token, tokenType);
+        return validateToken(token, tokenType).username().equals(userDetails.getUsername());
+    }
+
+    /**
+     * Verifies the signature and expiry of the token with a single parse and returns the claims
+     * needed to authenticate the request. Throws {@link io.jsonwebtoken.JwtException} if invalid.
+     */
+    public TokenClaims validateToken(String token, TokenType tokenType) {
+        Claims claims = extractAllClaims(token, tokenType);
+        return new TokenClaims(claims.getSubject(), claims.get("scope", String.class), claims.getExpiration());
     }
 
     public String extractUsername(String token, TokenType tokenType) {
@@ -75,27 +98,22 @@ public class JwtUtil {
         return extractClaims(token, tokenType, Claims::getExpiration);
     }
 
+    public Claims extractAllClaims(String token, TokenType tokenType) {
+        return parsers.get(tokenType)
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
     public boolean isTokenExpired(String token, TokenType tokenType) {
         return extractExpired(token, tokenType).before(new Date());
     }
 
     private Key getKey(TokenType tokenType) {
-        if (TokenType.ACCESS_TOKEN.equals(tokenType)){
-            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
-        }
-        else{
-            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshKey));
-        }
+        return keys.get(tokenType);
     }
 
     private <T> T extractClaims(String token, TokenType tokenType, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getKey(tokenType))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(extractAllClaims(token, tokenType));
     }
 
     private String buildScope(Collection <? extends GrantedAuthority> authorities) {
@@ -0,0 +1,17 @@
+package com.example.demo.utils;
+
+import com.example.demo.model.User;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+/**
+ * Resolves the authenticated user. The principal cache serves the lookup, so likes, follows and
+ * plays do not cost a user query each.
+ */
+public class SecurityUtil {
+    public static long getCurrentUserId(UserDetailsService userDetailsService) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        return ((User) userDetailsService.loadUserByUsername(username)).getId();
+    }
+}
@@ -3,50 +3,36 @@ package com.example.demo.utils;
 import org.springframework.data.domain.Sort;
 import org.springframework.util.StringUtils;
 
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class SortUtil {
+    private static final Pattern SORT_BY = Pattern.compile("^(\\w+)(:)(asc|desc)$");
+
     public static Sort resolveSortBy(String sortBy) {
         // Default sort by ID in ascending order
-        Sort sort = Sort.by(Sort.Direction.ASC, "id");
-
-        if (StringUtils.hasLength(sortBy)) {
-            Pattern pattern = Pattern.compile("^(\\w+)(:)(asc|desc)$");
-            Matcher matcher = pattern.matcher(sortBy);
-            if (matcher.find()) {
-                String columnToSort = matcher.group(1);
-                String sortDirection = matcher.group(3);
-                if (sortDirection.equalsIgnoreCase("asc")) {
-                    sort = Sort.by(Sort.Direction.ASC, columnToSort);
-                }
-                else if (sortDirection.equalsIgnoreCase("desc")) {
-                    sort = Sort.by(Sort.Direction.DESC, columnToSort);
-                }
-            }
-        }
-
-        return sort;
+        return parseSortBy(sortBy).map(Sort::by).orElse(Sort.by(Sort.Direction.ASC, "id"));
     }
 
     public static Sort resolveSortBy(String sortBy, String defaultSortColumn) {
-        Sort sort = Sort.by(Sort.Direction.DESC, defaultSortColumn);
-
-        if (StringUtils.hasLength(sortBy)) {
-            Pattern pattern = Pattern.compile("^(\\w+)(:)(asc|desc)$");
-            Matcher matcher = pattern.matcher(sortBy);
-            if (matcher.find()) {
-                String columnToSort = matcher.group(1);
-                String sortDirection = matcher.group(3);
-                if (sortDirection.equalsIgnoreCase("asc")) {
-                    sort = Sort.by(Sort.Direction.ASC, columnToSort);
-                }
-                else if (sortDirection.equalsIgnoreCase("desc")) {
-                    sort = Sort.by(Sort.Direction.DESC, columnToSort);
-                }
-            }
+        return parseSortBy(sortBy).map(Sort::by).orElse(Sort.by(Sort.Direction.DESC, defaultSortColumn));
+    }
+
+    /**
+     * @return the order of a {@code column:asc} or {@code column:desc} expression, empty otherwise
+     */
+    public static Optional<Sort.Order> parseSortBy(String sortBy) {
+        if (!StringUtils.hasLength(sortBy)) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = SORT_BY.matcher(sortBy);
+        if (!matcher.find()) {
+            return Optional.empty();
         }
 
-        return sort;
+        String columnToSort = matcher.group(1);
+        return Optional.of(matcher.group(3).equals("asc") ? Sort.Order.asc(columnToSort) : Sort.Order.desc(columnToSort));
     }
 }
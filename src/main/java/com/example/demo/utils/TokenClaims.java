@@ -0,0 +1,6 @@
+package com.example.demo.utils;
+
+import java.util.Date;
+
+public record TokenClaims(String username, String scope, Date expiration) {
+}
@@ -0,0 +1,24 @@
+package com.example.demo.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class TransactionUtil {
+    /**
+     * Runs the action once the surrounding transaction commits, or right away without one. Used
+     * for in-memory state derived from the database, so a concurrent read cannot re-populate it
+     * with rows as they were before the change.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
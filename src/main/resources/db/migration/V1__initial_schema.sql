@@ -0,0 +1,212 @@
+-- Schema as ddl-auto created it before migrations existed. Such databases are baselined at this
+-- version and skip it, new ones are created by it, and both continue with the same V2 onwards.
+
+CREATE TABLE user
+(
+    id                      BIGINT NOT NULL AUTO_INCREMENT,
+    first_name              VARCHAR(255),
+    last_name               VARCHAR(255),
+    gender                  ENUM ('MALE','FEMALE','OTHER'),
+    date_of_birth           DATE,
+    phone_number            VARCHAR(255),
+    email                   VARCHAR(255),
+    username                VARCHAR(255),
+    password                VARCHAR(255),
+    is_active               BIT    NOT NULL,
+    account_non_expired     BIT,
+    account_non_locked      BIT,
+    credentials_non_expired BIT,
+    enabled                 BIT,
+    artist_id               BIGINT,
+    created_at              DATETIME(6),
+    updated_at              DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_phone_number UNIQUE (phone_number),
+    CONSTRAINT uk_user_email UNIQUE (email),
+    CONSTRAINT uk_user_username UNIQUE (username),
+    CONSTRAINT uk_user_artist_id UNIQUE (artist_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE artist
+(
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    bio        VARCHAR(2048),
+    image_url  VARCHAR(512),
+    followers  BIGINT NOT NULL,
+    user_id    BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_artist_user_id UNIQUE (user_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE album
+(
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    image_url  VARCHAR(512),
+    artist_id  BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE song
+(
+    id         BIGINT  NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    duration   INTEGER NOT NULL,
+    image_url  VARCHAR(512),
+    song_url   VARCHAR(512),
+    like_count BIGINT  NOT NULL,
+    album_id   BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE genre
+(
+    id         INTEGER NOT NULL AUTO_INCREMENT,
+    name       ENUM ('POP','INDIE','HIP_HOP','R_AND_B','PHONK','EDM','JAZZ','COUNTRY','PUNK','ROCK'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE playlist
+(
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    name       VARCHAR(255),
+    user_id    BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE listening_history
+(
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT,
+    song_id    BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE address
+(
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    street_number VARCHAR(255),
+    street        VARCHAR(255),
+    city          VARCHAR(255),
+    country       VARCHAR(255),
+    user_id       BIGINT,
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE role
+(
+    id         INTEGER NOT NULL AUTO_INCREMENT,
+    name       ENUM ('ADMIN','USER','ARTIST','MOD'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_role_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE permission
+(
+    id         INTEGER NOT NULL AUTO_INCREMENT,
+    name       ENUM ('CREATE_USER','GET_USER','UPDATE_USER','DELETE_USER'),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_permission_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE token
+(
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(255),
+    access_token  VARCHAR(512),
+    refresh_token VARCHAR(512),
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_token_username UNIQUE (username),
+    CONSTRAINT uk_token_access_token UNIQUE (access_token),
+    CONSTRAINT uk_token_refresh_token UNIQUE (refresh_token)
+) ENGINE = InnoDB;
+
+-- Song.artists and Artist.songs were both owners of artist_songs, Artist.songs through the
+-- implicit songs_id column. V2 folds them into one pair per association.
+CREATE TABLE artist_songs
+(
+    song_id   BIGINT,
+    artist_id BIGINT,
+    songs_id  BIGINT,
+    FOREIGN KEY (song_id) REFERENCES song (id),
+    FOREIGN KEY (artist_id) REFERENCES artist (id),
+    FOREIGN KEY (songs_id) REFERENCES song (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE song_genres
+(
+    genre_id INTEGER NOT NULL,
+    song_id  BIGINT  NOT NULL,
+    PRIMARY KEY (genre_id, song_id)
+) ENGINE = InnoDB;
+
+-- Same for Playlist.songs and Song.playlists, the latter through playlists_id
+CREATE TABLE song_playlists
+(
+    playlist_id  BIGINT,
+    song_id      BIGINT,
+    playlists_id BIGINT,
+    FOREIGN KEY (playlist_id) REFERENCES playlist (id),
+    FOREIGN KEY (song_id) REFERENCES song (id),
+    FOREIGN KEY (playlists_id) REFERENCES playlist (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_roles
+(
+    user_id BIGINT  NOT NULL,
+    role_id INTEGER NOT NULL,
+    PRIMARY KEY (user_id, role_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE role_permissions
+(
+    permission_id INTEGER NOT NULL,
+    role_id       INTEGER NOT NULL,
+    PRIMARY KEY (permission_id, role_id)
+) ENGINE = InnoDB;
+
+ALTER TABLE user
+    ADD CONSTRAINT fk_user_artist FOREIGN KEY (artist_id) REFERENCES artist (id);
+ALTER TABLE artist
+    ADD CONSTRAINT fk_artist_user FOREIGN KEY (user_id) REFERENCES user (id);
+ALTER TABLE album
+    ADD CONSTRAINT fk_album_artist FOREIGN KEY (artist_id) REFERENCES artist (id);
+ALTER TABLE song
+    ADD CONSTRAINT fk_song_album FOREIGN KEY (album_id) REFERENCES album (id);
+ALTER TABLE playlist
+    ADD CONSTRAINT fk_playlist_user FOREIGN KEY (user_id) REFERENCES user (id);
+ALTER TABLE listening_history
+    ADD CONSTRAINT fk_listening_history_user FOREIGN KEY (user_id) REFERENCES user (id),
+    ADD CONSTRAINT fk_listening_history_song FOREIGN KEY (song_id) REFERENCES song (id);
+ALTER TABLE address
+    ADD CONSTRAINT fk_address_user FOREIGN KEY (user_id) REFERENCES user (id);
+ALTER TABLE song_genres
+    ADD CONSTRAINT fk_song_genres_genre FOREIGN KEY (genre_id) REFERENCES genre (id),
+    ADD CONSTRAINT fk_song_genres_song FOREIGN KEY (song_id) REFERENCES song (id);
+ALTER TABLE user_roles
+    ADD CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES user (id),
+    ADD CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES role (id);
+ALTER TABLE role_permissions
+    ADD CONSTRAINT fk_role_permissions_permission FOREIGN KEY (permission_id) REFERENCES permission (id),
+    ADD CONSTRAINT fk_role_permissions_role FOREIGN KEY (role_id) REFERENCES role (id);
@@ -0,0 +1,83 @@
+-- Artist.songs and Song.playlists used to be mapped as second owners of artist_songs and
+-- song_playlists, which gave both tables an extra column (songs_id, playlists_id) next to the real
+-- one, with each side writing its own rows. The tables are rebuilt here with one row per
+-- association. DDL only runs when the legacy column exists, a database ddl-auto created after the
+-- mappings were fixed already has the new shape.
+
+SET @legacy_artist_songs = (SELECT COUNT(*)
+                            FROM information_schema.columns
+                            WHERE table_schema = DATABASE()
+                              AND table_name = 'artist_songs'
+                              AND column_name = 'songs_id');
+
+SET @sql = IF(@legacy_artist_songs > 0,
+              'CREATE TABLE artist_songs_v2 (
+                   song_id   BIGINT NOT NULL,
+                   artist_id BIGINT NOT NULL,
+                   PRIMARY KEY (song_id, artist_id),
+                   CONSTRAINT fk_artist_songs_song FOREIGN KEY (song_id) REFERENCES song (id),
+                   CONSTRAINT fk_artist_songs_artist FOREIGN KEY (artist_id) REFERENCES artist (id)
+               ) ENGINE = InnoDB',
+              'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @sql = IF(@legacy_artist_songs > 0,
+              'INSERT IGNORE INTO artist_songs_v2 (song_id, artist_id)
+               SELECT COALESCE(song_id, songs_id), artist_id
+               FROM artist_songs
+               WHERE COALESCE(song_id, songs_id) IS NOT NULL AND artist_id IS NOT NULL',
+              'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @sql = IF(@legacy_artist_songs > 0, 'DROP TABLE artist_songs', 'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @sql = IF(@legacy_artist_songs > 0, 'RENAME TABLE artist_songs_v2 TO artist_songs', 'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @legacy_song_playlists = (SELECT COUNT(*)
+                              FROM information_schema.columns
+                              WHERE table_schema = DATABASE()
+                                AND table_name = 'song_playlists'
+                                AND column_name = 'playlists_id');
+
+SET @sql = IF(@legacy_song_playlists > 0,
+              'CREATE TABLE song_playlists_v2 (
+                   playlist_id BIGINT NOT NULL,
+                   song_id     BIGINT NOT NULL,
+                   PRIMARY KEY (playlist_id, song_id),
+                   CONSTRAINT fk_song_playlists_playlist FOREIGN KEY (playlist_id) REFERENCES playlist (id),
+                   CONSTRAINT fk_song_playlists_song FOREIGN KEY (song_id) REFERENCES song (id)
+               ) ENGINE = InnoDB',
+              'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @sql = IF(@legacy_song_playlists > 0,
+              'INSERT IGNORE INTO song_playlists_v2 (playlist_id, song_id)
+               SELECT COALESCE(playlist_id, playlists_id), song_id
+               FROM song_playlists
+               WHERE COALESCE(playlist_id, playlists_id) IS NOT NULL AND song_id IS NOT NULL',
+              'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @sql = IF(@legacy_song_playlists > 0, 'DROP TABLE song_playlists', 'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+SET @sql = IF(@legacy_song_playlists > 0, 'RENAME TABLE song_playlists_v2 TO song_playlists', 'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
@@ -0,0 +1,34 @@
+-- Play counts, likes and follows. A database ddl-auto updated while they were being added may
+-- already have some of them, so the column is only added when missing and the tables are only
+-- created when missing.
+
+SET @has_play_count = (SELECT COUNT(*)
+                       FROM information_schema.columns
+                       WHERE table_schema = DATABASE()
+                         AND table_name = 'song'
+                         AND column_name = 'play_count');
+
+SET @sql = IF(@has_play_count = 0,
+              'ALTER TABLE song ADD COLUMN play_count BIGINT NOT NULL DEFAULT 0 AFTER like_count',
+              'DO 0');
+PREPARE statement FROM @sql;
+EXECUTE statement;
+DEALLOCATE PREPARE statement;
+
+CREATE TABLE IF NOT EXISTS song_likes
+(
+    user_id BIGINT NOT NULL,
+    song_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, song_id),
+    CONSTRAINT fk_song_likes_user FOREIGN KEY (user_id) REFERENCES user (id),
+    CONSTRAINT fk_song_likes_song FOREIGN KEY (song_id) REFERENCES song (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS artist_follows
+(
+    user_id   BIGINT NOT NULL,
+    artist_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, artist_id),
+    CONSTRAINT fk_artist_follows_user FOREIGN KEY (user_id) REFERENCES user (id),
+    CONSTRAINT fk_artist_follows_artist FOREIGN KEY (artist_id) REFERENCES artist (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,30 @@
+-- Indexes for the repository queries. InnoDB appends the primary key to every secondary index, so
+-- an index on (x, id) also covers queries that only select the id.
+-- Unique lookups (user.username, user.email, token.username) and joins along a foreign key are
+-- already served by the unique constraints and the indexes MySQL creates for foreign keys.
+
+-- SongRepository.findFirstRowsByLikeCount / findRowsByLikeCountAfter: keyset pages walk the index
+-- backwards, the WHERE on (like_count, id) is a range on it
+CREATE INDEX idx_song_like_count_id ON song (like_count, id);
+
+-- SongRepository.existsByName
+CREATE INDEX idx_song_name ON song (name);
+
+-- AlbumRepository.findAllWeightedNames sums like_count per album from the index alone
+CREATE INDEX idx_song_album_like_count ON song (album_id, like_count);
+
+-- SongRepository.existsByNameAndArtistId: artist to songs, the primary key only serves song to artists
+CREATE INDEX idx_artist_songs_artist_song ON artist_songs (artist_id, song_id);
+
+-- SongRepository.findAllGenres / findAllScores: song to genres, the primary key serves genre to
+-- songs (findAllIdsByGenre, countAllByGenre)
+CREATE INDEX idx_song_genres_song_genre ON song_genres (song_id, genre_id);
+
+-- ArtistRepository.findFirstRowsByFollowers / findRowsByFollowersAfter
+CREATE INDEX idx_artist_followers_id ON artist (followers, id);
+
+-- ArtistRepository.findByName / findByNameIn
+CREATE INDEX idx_artist_name ON artist (name);
+
+-- AlbumRepository.findByName
+CREATE INDEX idx_album_name ON album (name);
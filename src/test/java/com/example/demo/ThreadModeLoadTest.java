@@ -0,0 +1,290 @@
+package com.example.demo;
+
+import com.example.demo.dto.request.AlbumRequestForArtist;
+import com.example.demo.dto.request.RegisterRequest;
+import com.example.demo.dto.request.RegisterRequestForArtist;
+import com.example.demo.service.ArtistService;
+import com.example.demo.service.AuthenticationService;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of request handling on platform threads against virtual threads. For each mode it
+ * starts the application on a random port with {@code spring.threads.virtual.enabled} off or on,
+ * then has {@code LOAD_TEST_CLIENTS} concurrent clients (500 by default) call the song listing
+ * ({@code GET /song/all}) and then the song upload ({@code POST /artist/add-my-song}) back to back
+ * for {@code LOAD_TEST_SECONDS} each (20 by default), after {@code LOAD_TEST_WARMUP_SECONDS} (5).
+ * Prints throughput, failed requests and latency percentiles per mode and endpoint. Only requests
+ * completed within the measurement count, a request taking over {@code LOAD_TEST_TIMEOUT_SECONDS}
+ * (30) fails.
+ * <p>
+ * Needs a scratch MySQL schema, which the application migrates, ideally seeded with songs by
+ * {@code RangeFilterBenchmarkTest}:
+ * <pre>
+ * BENCHMARK_DATASOURCE_URL=jdbc:mysql://localhost:3306/benchmark \
+ * BENCHMARK_DATASOURCE_USERNAME=... BENCHMARK_DATASOURCE_PASSWORD=... \
+ * ./mvnw test -Dtest=ThreadModeLoadTest
+ * </pre>
+ * Uploads go to local storage in a temporary directory. Set {@code LOAD_TEST_MEDIA_STORAGE=cloudinary}
+ * and the {@code CLOUDINARY_*} variables to include the Cloudinary round trip. The Hikari pool is
+ * sized as in production, {@code SPRING_DATASOURCE_HIKARI_MAXIMUM_POOL_SIZE} and
+ * {@code SPRING_DATASOURCE_HIKARI_CONNECTION_TIMEOUT} apply, so requests failing on connection
+ * acquisition under virtual threads show up as failed requests.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DATASOURCE_URL", matches = ".+")
+class ThreadModeLoadTest {
+    private static final int CLIENTS = intEnv("LOAD_TEST_CLIENTS", 500);
+    private static final Duration WARMUP = Duration.ofSeconds(intEnv("LOAD_TEST_WARMUP_SECONDS", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(intEnv("LOAD_TEST_SECONDS", 20));
+    private static final Duration TIMEOUT = Duration.ofSeconds(intEnv("LOAD_TEST_TIMEOUT_SECONDS", 30));
+    private static final byte[] IMAGE = randomBytes(64 * 1024);
+    private static final byte[] AUDIO = randomBytes(1024 * 1024);
+
+    @TempDir
+    private Path media;
+
+    @ParameterizedTest(name = "virtual threads: {0}")
+    @ValueSource(booleans = {false, true})
+    void songListingAndUpload(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MusicStreamingPlatform.class)
+                .run(arguments(virtualThreads))) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            String mode = virtualThreads ? "virtual" : "platform";
+
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("INSERT IGNORE INTO role (name) VALUES ('USER'), ('ARTIST')");
+            jdbcTemplate.update("INSERT INTO genre (name) SELECT 'POP' WHERE NOT EXISTS (SELECT 1 FROM genre WHERE name = 'POP')");
+
+            AuthenticationService authenticationService = context.getBean(AuthenticationService.class);
+            String userToken = authenticationService.register(new RegisterRequest(
+                    "load-" + UUID.randomUUID(), "password", "password")).getAccessToken();
+            Artist artist = registerArtist(context, authenticationService);
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            Result listing = load(client, () -> HttpRequest.newBuilder(URI.create(baseUrl + "/song/all?pageSize=20&pageNo="
+                            + ThreadLocalRandom.current().nextInt(50)))
+                    .header("Authorization", "Bearer " + userToken)
+                    .timeout(TIMEOUT)
+                    .GET()
+                    .build());
+            System.out.println(listing.report(mode, "listing"));
+
+            Result upload = load(client, () -> upload(baseUrl, artist));
+            System.out.println(upload.report(mode, "upload"));
+
+            assertThat(listing.succeeded()).as("successful listings").isPositive();
+            assertThat(upload.succeeded()).as("successful uploads").isPositive();
+        }
+    }
+
+    private String[] arguments(boolean virtualThreads) {
+        return new String[]{
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=" + System.getenv("BENCHMARK_DATASOURCE_URL"),
+                "--spring.datasource.username=" + System.getenv("BENCHMARK_DATASOURCE_USERNAME"),
+                "--spring.datasource.password=" + System.getenv("BENCHMARK_DATASOURCE_PASSWORD"),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=https://issuer.example.com",
+                "--jwt.accessExpiryTime=3600000",
+                "--jwt.refreshExpiryTime=3600000",
+                "--jwt.secretKey=" + Base64.getEncoder().encodeToString("a".repeat(32).getBytes()),
+                "--jwt.refreshKey=" + Base64.getEncoder().encodeToString("r".repeat(32).getBytes()),
+                "--open.api.title=load-test",
+                "--open.api.version=1",
+                "--open.api.description=load-test",
+                "--open.api.serverUrl=http://localhost",
+                "--open.api.serverName=load-test",
+                "--media.storage=" + envOrDefault("LOAD_TEST_MEDIA_STORAGE", "local"),
+                "--media.local.root=" + media,
+                "--CLOUDINARY_CLOUD_NAME=" + envOrDefault("CLOUDINARY_CLOUD_NAME", "load-test"),
+                "--CLOUDINARY_API_KEY=" + envOrDefault("CLOUDINARY_API_KEY", "load-test"),
+                "--CLOUDINARY_API_SECRET=" + envOrDefault("CLOUDINARY_API_SECRET", "load-test")
+        };
+    }
+
+    // register-for-artist and add-my-album are called on the services, only the measured endpoints go over HTTP
+    private static Artist registerArtist(ConfigurableApplicationContext context, AuthenticationService authenticationService) {
+        String suffix = UUID.randomUUID().toString();
+        String username = "load-artist-" + suffix;
+        String name = "Load Artist " + suffix;
+        String token = authenticationService.registerForArtist(RegisterRequestForArtist.builder()
+                .name(name)
+                .firstName("Load")
+                .lastName("Artist")
+                .username(username)
+                .password("password")
+                .build()).getAccessToken();
+
+        String album = "Load Album " + suffix;
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+        try {
+            context.getBean(ArtistService.class).addMyAlbum(AlbumRequestForArtist.builder()
+                    .name(album)
+                    .imageFile(new MockMultipartFile("imageFile", "cover.png", "image/png", IMAGE))
+                    .build());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return new Artist(name, album, token);
+    }
+
+    private static HttpRequest upload(String baseUrl, Artist artist) {
+        String boundary = "load-" + UUID.randomUUID();
+        String song = """
+                {"name": "Load Song %s", "duration": 180, "genres": [{"name": "POP"}],
+                 "collaborateArtists": [{"name": "%s"}], "album": {"name": "%s"}}"""
+                .formatted(UUID.randomUUID(), artist.name(), artist.album());
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        part(body, boundary, "song", null, "application/json", song.getBytes(StandardCharsets.UTF_8));
+        part(body, boundary, "imageFile", "cover.png", "image/png", IMAGE);
+        part(body, boundary, "songFile", "song.mp3", "audio/mpeg", AUDIO);
+        body.writeBytes(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/artist/add-my-song"))
+                .header("Authorization", "Bearer " + artist.token())
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    private static void part(ByteArrayOutputStream body, String boundary, String name, String filename,
+                             String contentType, byte[] content) {
+        String header = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\""
+                + (filename != null ? "; filename=\"" + filename + "\"" : "") + "\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n";
+        body.writeBytes(header.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(content);
+        body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Clients run on virtual threads, so the client side is not what caps concurrency
+    private static Result load(HttpClient client, Supplier<HttpRequest> request) throws Exception {
+        run(client, request, WARMUP);
+        return run(client, request, MEASUREMENT);
+    }
+
+    private static Result run(HttpClient client, Supplier<HttpRequest> request, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    Result result = new Result(duration);
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request.get(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        long end = System.nanoTime();
+                        if (end > deadline) {
+                            break;
+                        }
+                        if (status >= 200 && status < 300) {
+                            result.latencies.add(end - start);
+                        } else {
+                            result.failed++;
+                        }
+                    }
+                    return result;
+                }));
+            }
+        }
+
+        Result total = new Result(duration);
+        for (Future<Result> future : clients) {
+            Result result = future.get();
+            total.latencies.addAll(result.latencies);
+            total.failed += result.failed;
+        }
+        return total;
+    }
+
+    private static int intEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static String envOrDefault(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        return bytes;
+    }
+
+    private record Artist(String name, String album, String token) {
+    }
+
+    private static class Result {
+        private final List<Long> latencies = new ArrayList<>();
+        private final Duration duration;
+        private int failed;
+
+        Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        int succeeded() {
+            return latencies.size();
+        }
+
+        String report(String mode, String endpoint) {
+            List<Long> sorted = latencies.stream().sorted().toList();
+            return "%-8s %-7s %,8.1f req/s %,7d ok %,6d failed  p50 %,7.1f ms  p95 %,7.1f ms  p99 %,7.1f ms".formatted(
+                    mode, endpoint, succeeded() / (double) duration.toSeconds(), succeeded(), failed,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(List<Long> sorted, double percentile) {
+            if (sorted.isEmpty()) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+}
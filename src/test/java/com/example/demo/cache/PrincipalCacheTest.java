@@ -0,0 +1,54 @@
+package com.example.demo.cache;
+
+import com.example.demo.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+    private final PrincipalCache principalCache = new PrincipalCache(true, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, User> loader = username -> {
+        loads.incrementAndGet();
+        return User.builder().username(username).build();
+    };
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidateAllWaitsForTheCommit() {
+        principalCache.get("alice", loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        principalCache.invalidateAll();
+        principalCache.get("alice", loader);
+        assertThat(loads).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        principalCache.get("alice", loader);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateAllOutsideATransactionEvictsRightAway() {
+        principalCache.get("alice", loader);
+
+        principalCache.invalidateAll();
+        principalCache.get("alice", loader);
+
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.chart;
+
+import com.example.demo.constant.GenreName;
+import com.example.demo.repository.SongRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TopChartsTest {
+    private final SongRepository songRepository = mock(SongRepository.class);
+    private final TopCharts topCharts = new TopCharts(songRepository, 100, 10, 1, Duration.ofMinutes(10));
+
+    @BeforeEach
+    void loadScores() {
+        when(songRepository.findAllScores()).thenReturn(List.of(
+                new SongScore(1L, 50, 0, GenreName.POP),
+                new SongScore(2L, 10, 0, GenreName.POP),
+                new SongScore(3L, 50, 0, GenreName.ROCK),
+                new SongScore(4L, 99, 0, null)));
+        topCharts.rebuild();
+    }
+
+    @Test
+    void ranksByLikesThenIdDescending() {
+        assertThat(topCharts.rankByLikes(new long[]{1, 2, 3, 4}, 0, 10)).containsExactly(4L, 3L, 1L, 2L);
+    }
+
+    @Test
+    void returnsTheRequestedPage() {
+        assertThat(topCharts.rankByLikes(new long[]{1, 2, 3, 4}, 1, 2)).containsExactly(3L, 1L);
+        assertThat(topCharts.rankByLikes(new long[]{1, 2, 3, 4}, 4, 2)).isEmpty();
+    }
+
+    @Test
+    void ranksUnknownSongsAsUnliked() {
+        assertThat(topCharts.rankByLikes(new long[]{2, 7, 8}, 0, 10)).containsExactly(2L, 8L, 7L);
+    }
+
+    @Test
+    void matchesAFullSortOverManySongs() {
+        Random random = new Random(7);
+        List<SongScore> scores = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            scores.add(new SongScore(id, random.nextInt(50), 0, GenreName.POP));
+        }
+        when(songRepository.findAllScores()).thenReturn(scores);
+        topCharts.rebuild();
+
+        long[] ids = LongStream.rangeClosed(1, 2_000).toArray();
+        List<Long> expected = scores.stream()
+                .sorted(Comparator.comparingLong(SongScore::likeCount).thenComparingLong(SongScore::id).reversed())
+                .map(SongScore::id)
+                .toList();
+
+        assertThat(topCharts.rankByLikes(ids, 0, 2_000)).isEqualTo(expected);
+        assertThat(topCharts.rankByLikes(ids, 120, 40)).isEqualTo(expected.subList(120, 160));
+    }
+
+    @Test
+    void followsAppliedLikeDeltas() {
+        topCharts.apply(Map.of(2L, 100L), Map.of());
+
+        assertThat(topCharts.rankByLikes(new long[]{1, 2, 3, 4}, 0, 2)).containsExactly(2L, 4L);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.controller;
+
+import com.example.demo.constant.GenreName;
+import com.example.demo.dto.request.SongRequestForArtist;
+import com.example.demo.exception.GlobalExceptionHandler;
+import com.example.demo.service.ArtistService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ArtistControllerTest {
+    private static final String SONG = """
+            {"name": "Song", "duration": 180, "genres": [{"name": "POP"}],
+             "collaborateArtists": [{"name": "Artist"}], "album": {"name": "Album"}}""";
+
+    private final ArtistService artistService = mock(ArtistService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new ArtistController(artistService))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void addsASongFromTheJsonPartAndTheFiles() throws Exception {
+        when(artistService.addMySong(any())).thenReturn(7L);
+
+        mockMvc.perform(multipart("/artist/add-my-song")
+                        .file(new MockMultipartFile("song", "", MediaType.APPLICATION_JSON_VALUE, SONG.getBytes()))
+                        .file(new MockMultipartFile("imageFile", "cover.png", "image/png", new byte[16]))
+                        .file(new MockMultipartFile("songFile", "song.mp3", "audio/mpeg", new byte[64])))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(7));
+
+        ArgumentCaptor<SongRequestForArtist> request = ArgumentCaptor.forClass(SongRequestForArtist.class);
+        verify(artistService).addMySong(request.capture());
+        assertThat(request.getValue().getName()).isEqualTo("Song");
+        assertThat(request.getValue().getGenres()).singleElement()
+                .satisfies(genre -> assertThat(genre.getName()).isEqualTo(GenreName.POP));
+        assertThat(request.getValue().getAlbum().getName()).isEqualTo("Album");
+        assertThat(request.getValue().getImageFile().getOriginalFilename()).isEqualTo("cover.png");
+        assertThat(request.getValue().getSongFile().getSize()).isEqualTo(64);
+    }
+
+    @Test
+    void rejectsASongWithoutGenres() throws Exception {
+        mockMvc.perform(multipart("/artist/add-my-song")
+                        .file(new MockMultipartFile("song", "", MediaType.APPLICATION_JSON_VALUE,
+                                SONG.replace("[{\"name\": \"POP\"}]", "[]").getBytes()))
+                        .file(new MockMultipartFile("imageFile", "cover.png", "image/png", new byte[16]))
+                        .file(new MockMultipartFile("songFile", "song.mp3", "audio/mpeg", new byte[64])))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(artistService);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.response.CursorPageResponse;
+import com.example.demo.exception.GlobalExceptionHandler;
+import com.example.demo.service.ListeningService;
+import com.example.demo.service.SongService;
+import com.example.demo.storage.MediaFileSender;
+import com.example.demo.storage.MediaStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SongControllerTest {
+    private final SongService songService = mock(SongService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new SongController(songService, mock(ListeningService.class),
+                    mock(MediaStorage.class), mock(MediaFileSender.class)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "101"})
+    void rejectsCursorPageSizesOutOfRange(String pageSize) throws Exception {
+        mockMvc.perform(get("/song/all-by-cursor").param("pageSize", pageSize))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("pageSize must be between 1 and 100"));
+
+        verifyNoInteractions(songService);
+    }
+
+    @Test
+    void servesCursorPagesWithinRange() throws Exception {
+        when(songService.getAllSongsByCursor(anyInt(), any())).thenAnswer(invocation -> CursorPageResponse.builder()
+                .pageSize(invocation.getArgument(0))
+                .build());
+
+        mockMvc.perform(get("/song/all-by-cursor").param("pageSize", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pageSize").value(100));
+    }
+}
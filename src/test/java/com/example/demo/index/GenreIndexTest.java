@@ -0,0 +1,72 @@
+package com.example.demo.index;
+
+import com.example.demo.constant.GenreName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenreIndexTest {
+    private final GenreIndex index = new GenreIndex();
+
+    @BeforeEach
+    void indexSongs() {
+        index.put(1, Set.of(GenreName.POP, GenreName.ROCK));
+        index.put(2, Set.of(GenreName.POP));
+        index.put(3, Set.of(GenreName.JAZZ));
+        index.put(4, Set.of());
+    }
+
+    @Test
+    void allRequiresEveryGenre() {
+        assertThat(index.match(Set.of(GenreName.POP), Set.of(), Set.of())).containsExactly(1, 2);
+        assertThat(index.match(Set.of(GenreName.POP, GenreName.ROCK), Set.of(), Set.of())).containsExactly(1);
+    }
+
+    @Test
+    void anyRequiresOneOfTheGenres() {
+        assertThat(index.match(Set.of(), Set.of(GenreName.ROCK, GenreName.JAZZ), Set.of())).containsExactly(1, 3);
+    }
+
+    @Test
+    void noneExcludesTheGenres() {
+        assertThat(index.match(Set.of(GenreName.POP), Set.of(), Set.of(GenreName.ROCK))).containsExactly(2);
+        assertThat(index.match(Set.of(), Set.of(), Set.of(GenreName.POP))).containsExactly(3, 4);
+    }
+
+    @Test
+    void combinesAllAnyAndNone() {
+        index.put(5, Set.of(GenreName.POP, GenreName.JAZZ));
+
+        assertThat(index.match(Set.of(GenreName.POP), Set.of(GenreName.ROCK, GenreName.JAZZ), Set.of(GenreName.ROCK)))
+                .containsExactly(5);
+    }
+
+    @Test
+    void putReplacesTheSongsGenres() {
+        index.put(1, Set.of(GenreName.JAZZ));
+
+        assertThat(index.match(Set.of(GenreName.POP), Set.of(), Set.of())).containsExactly(2);
+        assertThat(index.match(Set.of(GenreName.JAZZ), Set.of(), Set.of())).containsExactly(1, 3);
+    }
+
+    @Test
+    void removeDropsTheSongFromEveryGenre() {
+        index.remove(2);
+
+        assertThat(index.match(Set.of(GenreName.POP), Set.of(), Set.of())).containsExactly(1);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void loadReplacesTheWholeIndex() {
+        index.load(Map.of(7L, Set.of(GenreName.ROCK), 8L, Set.of()));
+
+        assertThat(index.match(Set.of(GenreName.ROCK), Set.of(), Set.of())).containsExactly(7);
+        assertThat(index.match(Set.of(), Set.of(), Set.of(GenreName.ROCK))).containsExactly(8);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
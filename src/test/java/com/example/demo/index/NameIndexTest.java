@@ -0,0 +1,116 @@
+package com.example.demo.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameIndexTest {
+    private final NameIndex index = new NameIndex();
+
+    @Test
+    void ranksExactTokenAbovePrefix() {
+        index.put(1, "Lovely Day");
+        index.put(2, "Love Story");
+
+        assertThat(index.search("love", 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void requiresEveryQueryToken() {
+        index.put(1, "Love Story");
+        index.put(2, "Lovely Day");
+
+        assertThat(index.search("love day", 10)).containsExactly(2L);
+        assertThat(index.search("love night", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoresCaseDiacriticsAndPunctuation() {
+        index.put(1, "Đen Vâu - Bài Này Chill Phết!");
+
+        assertThat(index.search("den vau", 10)).containsExactly(1L);
+        assertThat(index.search("BAI NAY", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void findsTokensWithinOneEdit() {
+        index.put(1, "Bohemian Rhapsody");
+
+        assertThat(index.search("rhapsdy", 10)).containsExactly(1L);
+        assertThat(index.search("rhapsodi", 10)).containsExactly(1L);
+        assertThat(index.search("bohemain", 10)).containsExactly(1L);
+        assertThat(index.search("rhapsodyy", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void doesNotMatchShortTokensFuzzily() {
+        index.put(1, "Abc");
+
+        assertThat(index.search("abd", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksExactAboveFuzzy() {
+        index.put(1, "Rhapsodi");
+        index.put(2, "Rhapsody");
+
+        assertThat(index.search("rhapsody", 10)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void putReplacesThePreviousName() {
+        index.put(1, "Old Name");
+        index.put(1, "New Title");
+
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(index.search("title", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeDropsTheIdAndItsTerms() {
+        index.put(1, "Yesterday");
+        index.put(2, "Yesterday Once More");
+
+        index.remove(1);
+
+        assertThat(index.search("yesterday", 10)).containsExactly(2L);
+        index.remove(2);
+        assertThat(index.search("yesterdy", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void limitsResults() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Song " + id);
+        }
+
+        assertThat(index.search("song", 3)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void matchesReturnsEveryMatchWithoutALimit() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Song " + id);
+        }
+        index.put(6, "Other");
+
+        assertThat(index.matches("song")).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(index.matches("song 7")).isEmpty();
+        assertThat(index.matches(null)).isEmpty();
+    }
+
+    @Test
+    void blankQueryMatchesNothing() {
+        index.put(1, "Anything");
+
+        assertThat(index.search("  - ", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+    }
+
+    @Test
+    void tokenizeFoldsAndDeduplicates() {
+        assertThat(NameIndex.tokenize("Hello, World! HELLO")).containsExactly("hello", "world");
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.model;
+
+import org.hibernate.Hibernate;
+import org.hibernate.collection.spi.PersistentSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserTest {
+
+    @Test
+    void saveRoleLeavesAnUninitializedRoleUsersCollectionUntouched() {
+        User user = new User();
+        Role role = new Role();
+        role.setUsers(new PersistentSet<>());
+
+        user.saveRole(role);
+
+        assertThat(user.getRoles()).containsExactly(role);
+        assertThat(Hibernate.isInitialized(role.getUsers())).isFalse();
+    }
+
+    @Test
+    void saveRoleKeepsALoadedRoleUsersCollectionInSync() {
+        User user = new User();
+        Role role = new Role();
+        role.setUsers(new HashSet<>());
+
+        user.saveRole(role);
+        assertThat(role.getUsers()).containsExactly(user);
+
+        user.removeRole(role);
+        assertThat(user.getRoles()).isEmpty();
+        assertThat(role.getUsers()).isEmpty();
+    }
+
+    @Test
+    void removeRoleLeavesAnUninitializedRoleUsersCollectionUntouched() {
+        User user = new User();
+        Role role = new Role();
+        user.saveRole(role);
+        role.setUsers(new PersistentSet<>());
+
+        user.removeRole(role);
+
+        assertThat(user.getRoles()).isEmpty();
+        assertThat(Hibernate.isInitialized(role.getUsers())).isFalse();
+    }
+}
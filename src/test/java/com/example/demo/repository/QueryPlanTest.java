@@ -0,0 +1,114 @@
+package com.example.demo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the hot repository queries, written out as the SQL Hibernate generates for them,
+ * and fails on a full table scan. Needs a scratch MySQL schema, which it migrates and seeds when
+ * empty, so the optimizer sees enough rows to prefer the indexes:
+ * {@code QUERY_PLAN_DATASOURCE_URL=jdbc:mysql://localhost:3306/query_plan}, plus
+ * {@code QUERY_PLAN_DATASOURCE_USERNAME} and {@code QUERY_PLAN_DATASOURCE_PASSWORD}.
+ */
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DATASOURCE_URL", matches = ".+")
+class QueryPlanTest {
+    private static final int SEED_ROWS = 5000;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv("QUERY_PLAN_DATASOURCE_URL"),
+                System.getenv("QUERY_PLAN_DATASOURCE_USERNAME"),
+                System.getenv("QUERY_PLAN_DATASOURCE_PASSWORD"));
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Integer songs = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM song", Integer.class);
+        if (songs == null || songs < SEED_ROWS) {
+            seed();
+        }
+        jdbcTemplate.execute("ANALYZE TABLE song, artist, album, artist_songs, song_genres, user, token");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // SongRepository.findFirstRowsByLikeCount / findRowsByLikeCountAfter
+            "SELECT id, like_count FROM song ORDER BY like_count DESC, id DESC LIMIT 21",
+            "SELECT id, like_count FROM song WHERE like_count < 500 OR (like_count = 500 AND id < 100) " +
+                    "ORDER BY like_count DESC, id DESC LIMIT 21",
+            // SongRepository.existsByName
+            "SELECT id FROM song WHERE name = 'song-42' LIMIT 1",
+            // SongRepository.existsByNameAndArtistId
+            "SELECT s.id FROM song s JOIN artist_songs a ON a.song_id = s.id " +
+                    "WHERE s.name = 'song-42' AND a.artist_id = 7 LIMIT 1",
+            // SongRepository.findAllIdsByGenre / countAllByGenre
+            "SELECT song_id FROM song_genres WHERE genre_id = 1 LIMIT 20",
+            // SongRepository.findAllByIdsAndSort
+            "SELECT * FROM song WHERE id IN (1, 2, 3, 4, 5) ORDER BY like_count DESC, id DESC",
+            // ArtistRepository.findFirstRowsByFollowers / findRowsByFollowersAfter
+            "SELECT id, followers FROM artist ORDER BY followers DESC, id DESC LIMIT 21",
+            "SELECT id, followers FROM artist WHERE followers < 500 OR (followers = 500 AND id < 100) " +
+                    "ORDER BY followers DESC, id DESC LIMIT 21",
+            // ArtistRepository.findByName / findByNameIn
+            "SELECT * FROM artist WHERE name = 'artist-42'",
+            "SELECT * FROM artist WHERE name IN ('artist-1', 'artist-2', 'artist-3')",
+            // AlbumRepository.findByName
+            "SELECT * FROM album WHERE name = 'album-42'",
+            // UserRepository.findByUsernameWithRoles / findByEmail
+            "SELECT * FROM user WHERE username = 'user-42'",
+            "SELECT * FROM user WHERE email = 'user-42@example.com'",
+            // TokenRepository.findByUsername
+            "SELECT * FROM token WHERE username = 'user-42'"
+    })
+    void hotQueryAvoidsFullTableScan(String sql) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+
+        assertThat(plan)
+                .as("EXPLAIN %s", sql)
+                .allSatisfy(row -> assertThat(row.get("type")).as("access type on %s", row.get("table")).isNotEqualTo("ALL"));
+    }
+
+    private static void seed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long base = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM song", Long.class);
+
+        List<Object[]> artists = new ArrayList<>();
+        List<Object[]> albums = new ArrayList<>();
+        List<Object[]> songs = new ArrayList<>();
+        for (long i = base + 1; i <= base + SEED_ROWS; i++) {
+            artists.add(new Object[]{i, "artist-" + i, random.nextLong(1000)});
+            albums.add(new Object[]{i, "album-" + i, i});
+            songs.add(new Object[]{i, "song-" + i, random.nextInt(600), random.nextLong(1000), random.nextLong(10000), i});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO artist (id, name, followers) VALUES (?, ?, ?)", artists);
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO album (id, name, artist_id) VALUES (?, ?, ?)", albums);
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO song (id, name, duration, like_count, play_count, album_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", songs);
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO artist_songs (song_id, artist_id) VALUES (?, ?)",
+                songs.stream().map(song -> new Object[]{song[0], song[5]}).toList());
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> tokens = new ArrayList<>();
+        for (long i = base + 1; i <= base + SEED_ROWS; i++) {
+            users.add(new Object[]{"user-" + i, "user-" + i + "@example.com"});
+            tokens.add(new Object[]{"user-" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO user (username, email, is_active) VALUES (?, ?, 1)", users);
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO token (username) VALUES (?)", tokens);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.repository.specification;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Times the range filters of the song search with the value bound as the column's type, as
+ * {@link SearchPredicates} binds it, against the same value bound as a string, as it was before.
+ * Each filter runs as the id page and the count query of {@code sortAndSpecificationSearch}.
+ * Prints the mean latency of both and fails when the typed filter on an indexed column scans the
+ * table.
+ * <p>
+ * Needs a scratch MySQL schema, which it migrates and fills up to {@code BENCHMARK_SONG_ROWS}
+ * songs (200000 by default):
+ * {@code BENCHMARK_DATASOURCE_URL=jdbc:mysql://localhost:3306/benchmark}, plus
+ * {@code BENCHMARK_DATASOURCE_USERNAME} and {@code BENCHMARK_DATASOURCE_PASSWORD}.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DATASOURCE_URL", matches = ".+")
+class RangeFilterBenchmarkTest {
+    private static final int WARMUP_RUNS = 10;
+    private static final int MEASURED_RUNS = 50;
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        // One connection for every query, so connecting is not part of the timings
+        dataSource = new SingleConnectionDataSource(
+                System.getenv("BENCHMARK_DATASOURCE_URL"),
+                System.getenv("BENCHMARK_DATASOURCE_USERNAME"),
+                System.getenv("BENCHMARK_DATASOURCE_PASSWORD"), true);
+        Properties properties = new Properties();
+        properties.setProperty("rewriteBatchedStatements", "true");
+        dataSource.setConnectionProperties(properties);
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        String rows = System.getenv("BENCHMARK_SONG_ROWS");
+        seed(rows != null ? Integer.parseInt(rows) : 200_000);
+        jdbcTemplate.execute("ANALYZE TABLE song");
+    }
+
+    @AfterAll
+    static void close() {
+        dataSource.destroy();
+    }
+
+    static Stream<Arguments> filters() {
+        return Stream.of(
+                // likeCount>=990, the indexed column
+                arguments("like_count >= ?", 990L, "990", true),
+                // duration>590
+                arguments("duration > ?", 590, "590", false),
+                // createdAt<2000-01-01
+                arguments("created_at < ?", Timestamp.valueOf(LocalDate.of(2000, 1, 1).atStartOfDay()), "2000-01-01", false));
+    }
+
+    @ParameterizedTest
+    @MethodSource("filters")
+    void typedAgainstStringBoundFilter(String filter, Object typed, String string, boolean indexed) {
+        // As Hibernate renders the id page and the count of sortAndSpecificationSearch
+        String page = "SELECT id FROM song WHERE " + filter + " ORDER BY like_count DESC LIMIT 20";
+        String count = "SELECT COUNT(id) FROM song WHERE " + filter;
+
+        if (indexed) {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + count, typed);
+            assertThat(plan).allSatisfy(row -> assertThat(row.get("type")).as("EXPLAIN %s", count).isNotEqualTo("ALL"));
+        }
+
+        Long typedMatches = jdbcTemplate.queryForObject(count, Long.class, typed);
+        Long stringMatches = jdbcTemplate.queryForObject(count, Long.class, string);
+
+        System.out.printf("%-16s typed %,d matches, page %,.0f us, count %,.0f us | string %,d matches, page %,.0f us, count %,.0f us%n",
+                filter, typedMatches, meanMicros(page, typed), meanMicros(count, typed),
+                stringMatches, meanMicros(page, string), meanMicros(count, string));
+    }
+
+    private static double meanMicros(String sql, Object value) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            jdbcTemplate.queryForList(sql, value);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            jdbcTemplate.queryForList(sql, value);
+        }
+        return (System.nanoTime() - start) / 1000.0 / MEASURED_RUNS;
+    }
+
+    private static void seed(int rows) {
+        Integer songs = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM song", Integer.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime epoch = LocalDateTime.of(1990, 1, 1, 0, 0);
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = songs; i < rows; i++) {
+            batch.add(new Object[]{"bench-song-" + i, 30 + random.nextInt(571), random.nextLong(1000),
+                    Timestamp.valueOf(epoch.plusMinutes(random.nextLong(35L * 365 * 24 * 60)))});
+            if (batch.size() == 5000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO song (name, duration, like_count, created_at) VALUES (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
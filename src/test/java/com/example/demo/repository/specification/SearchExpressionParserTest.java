@@ -0,0 +1,87 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.exception.InvalidDataException;
+import com.example.demo.repository.criteria.SearchCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SearchExpressionParserTest {
+    private final SearchFields fields = new SearchFields("songs", Map.of(
+            "name", new SearchField("name", String.class, true),
+            "likeCount", new SearchField("likeCount", long.class, true),
+            "duration", new SearchField("duration", int.class, false),
+            "createdAt", new SearchField("createdAt", Date.class, false)),
+            1000, Duration.ofSeconds(2));
+
+    @Test
+    void parsesTermsWithTypedValuesAndLogic() {
+        List<SearchSpecification> specifications =
+                SearchExpressionParser.parse("name~love,likeCount>=1000'createdAt<2000-01-01", fields);
+
+        assertThat(specifications)
+                .extracting(SearchSpecification::getAndOrLogic, SearchSpecification::getKey,
+                        SearchSpecification::getOperator, SearchSpecification::getValue)
+                .containsExactly(
+                        tuple(null, "name", SearchOperator.CONTAIN, "love"),
+                        tuple(",", "likeCount", SearchOperator.GREATER_THAN_OR_EQUAL_TO, 1000L),
+                        tuple("'", "createdAt", SearchOperator.LESS_THAN,
+                                Date.from(LocalDate.of(2000, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant())));
+    }
+
+    @Test
+    void prefersTwoCharacterOperators() {
+        assertThat(SearchExpressionParser.parse("duration<=200,name!~live,name!:x,likeCount!=0", fields))
+                .extracting(SearchSpecification::getOperator)
+                .containsExactly(SearchOperator.LESS_THAN_OR_EQUAL_TO, SearchOperator.NOT_CONTAIN,
+                        SearchOperator.NOT_LIKE, SearchOperator.NOT_EQUAL);
+    }
+
+    @Test
+    void emptySearchHasNoTerms() {
+        assertThat(SearchExpressionParser.parse("", fields)).isEmpty();
+        assertThat(SearchExpressionParser.parse(null, fields)).isEmpty();
+    }
+
+    @Test
+    void rejectsUnknownFields() {
+        assertThatThrownBy(() -> SearchExpressionParser.parse("password:secret", fields))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Cannot search or sort songs by: password");
+    }
+
+    @Test
+    void rejectsPatternSearchOnNonTextFields() {
+        assertThatThrownBy(() -> SearchExpressionParser.parse("likeCount~10", fields))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Pattern search is only supported on text fields: likeCount");
+    }
+
+    @Test
+    void rejectsValuesOfTheWrongType() {
+        assertThatThrownBy(() -> SearchExpressionParser.parse("duration>long", fields))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid value for duration: long");
+    }
+
+    @Test
+    void parsesOneCriterionPerTermAndSkipsMalformedOnes() {
+        List<SearchCriteria> criteria = SearchExpressionParser.parseCriteria(fields, "name:love", "duration>200", "no operator");
+
+        assertThat(criteria)
+                .extracting(SearchCriteria::getKey, SearchCriteria::getOperator, SearchCriteria::getValue)
+                .containsExactly(
+                        tuple("name", ":", "love"),
+                        tuple("duration", ">", 200));
+        assertThat(SearchExpressionParser.parseCriteria(fields, (String[]) null)).isEmpty();
+    }
+}
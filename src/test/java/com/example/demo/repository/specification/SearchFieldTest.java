@@ -0,0 +1,74 @@
+package com.example.demo.repository.specification;
+
+import com.example.demo.constant.Gender;
+import com.example.demo.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchFieldTest {
+
+    @Test
+    void keepsTextAsIs() {
+        SearchField name = new SearchField("name", String.class, true);
+
+        assertThat(name.isText()).isTrue();
+        assertThat(name.parse("love")).isEqualTo("love");
+    }
+
+    @Test
+    void parsesWholeNumbersToTheAttributeType() {
+        assertThat(new SearchField("likeCount", long.class, true).parse("1000")).isEqualTo(1000L);
+        assertThat(new SearchField("id", Long.class, true).parse("-7")).isEqualTo(-7L);
+        assertThat(new SearchField("duration", int.class, false).parse("200")).isEqualTo(200);
+        assertThat(new SearchField("duration", Integer.class, false).parse("200")).isInstanceOf(Integer.class);
+    }
+
+    @Test
+    void parsesBooleansStrictly() {
+        SearchField active = new SearchField("active", boolean.class, false);
+
+        assertThat(active.parse("TRUE")).isEqualTo(true);
+        assertThat(active.parse("false")).isEqualTo(false);
+        assertThatThrownBy(() -> active.parse("yes"))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid value for active: yes");
+    }
+
+    @Test
+    void parsesDatesAsStartOfDay() {
+        SearchField dateOfBirth = new SearchField("dateOfBirth", Date.class, false);
+
+        assertThat(dateOfBirth.parse("2000-01-01"))
+                .isEqualTo(Date.from(LocalDate.of(2000, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+    }
+
+    @Test
+    void parsesEnumsIgnoringCase() {
+        assertThat(new SearchField("gender", Gender.class, false).parse("female")).isEqualTo(Gender.FEMALE);
+    }
+
+    @Test
+    void rejectsValuesNotOfTheAttributeType() {
+        assertThatThrownBy(() -> new SearchField("likeCount", long.class, true).parse("12a"))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid value for likeCount: 12a");
+        assertThatThrownBy(() -> new SearchField("duration", int.class, false).parse("3000000000"))
+                .isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> new SearchField("dateOfBirth", Date.class, false).parse("2000-13-01"))
+                .isInstanceOf(InvalidDataException.class);
+        assertThatThrownBy(() -> new SearchField("gender", Gender.class, false).parse("unknown"))
+                .isInstanceOf(InvalidDataException.class);
+    }
+
+    @Test
+    void failsOnUnsupportedAttributeType() {
+        assertThatThrownBy(() -> new SearchField("rating", Double.class, false).parse("1.5"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
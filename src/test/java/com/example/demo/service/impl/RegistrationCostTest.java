@@ -0,0 +1,124 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.request.RegisterRequest;
+import com.example.demo.service.AuthenticationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Registers a user against user tables of growing size and fails unless every registration runs
+ * the same number of statements and loads the same number of entities, counted with Hibernate
+ * statistics. Prints both with the time each registration took.
+ * <p>
+ * Needs a scratch MySQL schema, which the application migrates and this test fills with users
+ * holding the USER role:
+ * {@code BENCHMARK_DATASOURCE_URL=jdbc:mysql://localhost:3306/benchmark}, plus
+ * {@code BENCHMARK_DATASOURCE_USERNAME} and {@code BENCHMARK_DATASOURCE_PASSWORD}.
+ */
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DATASOURCE_URL", matches = ".+")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class RegistrationCostTest {
+    private static final int[] USER_ROWS = {1_000, 10_000, 100_000};
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("BENCHMARK_DATASOURCE_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("BENCHMARK_DATASOURCE_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("BENCHMARK_DATASOURCE_PASSWORD"));
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("spring.security.oauth2.resourceserver.jwt.issuer-uri", () -> "https://issuer.example.com");
+        registry.add("jwt.accessExpiryTime", () -> "3600000");
+        registry.add("jwt.refreshExpiryTime", () -> "3600000");
+        registry.add("jwt.secretKey", () -> Base64.getEncoder().encodeToString("a".repeat(32).getBytes()));
+        registry.add("jwt.refreshKey", () -> Base64.getEncoder().encodeToString("r".repeat(32).getBytes()));
+        registry.add("open.api.title", () -> "benchmark");
+        registry.add("open.api.version", () -> "1");
+        registry.add("open.api.description", () -> "benchmark");
+        registry.add("open.api.serverUrl", () -> "http://localhost");
+        registry.add("open.api.serverName", () -> "benchmark");
+        registry.add("media.storage", () -> "local");
+        registry.add("media.local.root", () -> System.getProperty("java.io.tmpdir") + "/registration-cost-media");
+        registry.add("CLOUDINARY_CLOUD_NAME", () -> "benchmark");
+        registry.add("CLOUDINARY_API_KEY", () -> "benchmark");
+        registry.add("CLOUDINARY_API_SECRET", () -> "benchmark");
+    }
+
+    @Test
+    void registrationCostIsFlatInTheNumberOfUsers() {
+        jdbcTemplate.update("INSERT IGNORE INTO role (name) VALUES ('USER')");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Fills the second-level and query caches for the USER role
+        authenticationService.register(registerRequest());
+
+        List<Long> statements = new ArrayList<>();
+        List<Long> entityLoads = new ArrayList<>();
+        for (int rows : USER_ROWS) {
+            seed(rows);
+
+            statistics.clear();
+            long start = System.nanoTime();
+            authenticationService.register(registerRequest());
+            long micros = (System.nanoTime() - start) / 1000;
+
+            statements.add(statistics.getPrepareStatementCount());
+            entityLoads.add(statistics.getEntityLoadCount());
+            System.out.printf("%,8d users: %d statements, %d entities loaded, %,d us%n",
+                    rows, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(), micros);
+        }
+
+        assertThat(statements).as("statements per registration").containsOnly(statements.get(0));
+        assertThat(entityLoads).as("entities loaded per registration").containsOnly(entityLoads.get(0));
+    }
+
+    private static RegisterRequest registerRequest() {
+        String username = "bench-" + UUID.randomUUID();
+        return new RegisterRequest(username, "password", "password");
+    }
+
+    private void seed(int rows) {
+        Integer users = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user", Integer.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = users; i < rows; i++) {
+            batch.add(new Object[]{"bench-user-" + UUID.randomUUID(), now, now});
+            if (batch.size() == 5000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO user (username, password, is_active, enabled, " +
+                        "account_non_expired, account_non_locked, credentials_non_expired, created_at, updated_at) " +
+                        "VALUES (?, 'password', 1, 1, 1, 1, 1, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        jdbcTemplate.update("INSERT IGNORE INTO user_roles (user_id, role_id) " +
+                "SELECT u.id, r.id FROM user u JOIN role r ON r.name = 'USER'");
+    }
+}
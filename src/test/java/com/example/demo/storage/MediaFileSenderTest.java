@@ -0,0 +1,159 @@
+package com.example.demo.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaFileSenderTest {
+    private static final String KEY = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef.mp3";
+
+    private final MediaFileSender sender = new MediaFileSender();
+    private final byte[] content = new byte[100];
+    private Path file;
+
+    @BeforeEach
+    void writeFile(@TempDir Path folder) throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(folder.resolve(KEY), content);
+    }
+
+    @Test
+    void servesWholeFileWithoutRange() throws IOException {
+        MockHttpServletResponse response = serve(new MockHttpServletRequest());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + KEY + "\"");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentType()).isEqualTo("audio/mpeg");
+    }
+
+    @Test
+    void servesClosedRange() throws IOException {
+        MockHttpServletResponse response = serve(withRange("bytes=10-19"));
+
+        assertPartial(response, 10, 19);
+    }
+
+    @Test
+    void servesOpenEndedRange() throws IOException {
+        MockHttpServletResponse response = serve(withRange("bytes=90-"));
+
+        assertPartial(response, 90, 99);
+    }
+
+    @Test
+    void servesSuffixRange() throws IOException {
+        MockHttpServletResponse response = serve(withRange("bytes=-10"));
+
+        assertPartial(response, 90, 99);
+    }
+
+    @Test
+    void clampsRangeEndToFileSize() throws IOException {
+        MockHttpServletResponse response = serve(withRange("bytes=95-500"));
+
+        assertPartial(response, 95, 99);
+    }
+
+    @Test
+    void rejectsRangeStartingPastTheEnd() throws IOException {
+        MockHttpServletResponse response = serve(withRange("bytes=200-300"));
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */100");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void servesWholeFileForMultipleRanges() throws IOException {
+        MockHttpServletResponse response = serve(withRange("bytes=0-1,5-6"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void servesWholeFileForMalformedRange() throws IOException {
+        MockHttpServletResponse response = serve(withRange("items=0-1"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = withRange("bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void honoursRangeWhenIfRangeMatches() throws IOException {
+        MockHttpServletRequest request = withRange("bytes=10-19");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"" + KEY + "\"");
+
+        assertPartial(serve(request), 10, 19);
+    }
+
+    @Test
+    void answersNotModifiedForMatchingEtag() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + KEY + "\"");
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void handsRangeToSendfileWhenSupported() throws IOException {
+        MockHttpServletRequest request = withRange("bytes=10-19");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(10L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(20L);
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sender.serve(file, request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest withRange(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+
+    private void assertPartial(MockHttpServletResponse response, int start, int end) {
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes " + start + "-" + end + "/100");
+        assertThat(response.getContentLengthLong()).isEqualTo(end - start + 1);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, start, end + 1));
+    }
+}
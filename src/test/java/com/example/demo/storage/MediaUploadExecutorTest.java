@@ -0,0 +1,68 @@
+package com.example.demo.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaUploadExecutorTest {
+
+    @Test
+    void runsUploadsOnVirtualThreadsWhenEnabled() {
+        MediaUploadExecutor executor = new MediaUploadExecutor(true, 2);
+        try {
+            assertThat(executor.supplyAsync(() -> Thread.currentThread().isVirtual()).join()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void runsUploadsOnPooledPlatformThreadsOtherwise() {
+        MediaUploadExecutor executor = new MediaUploadExecutor(false, 2);
+        try {
+            Thread worker = executor.supplyAsync(Thread::currentThread).join();
+
+            assertThat(worker.isVirtual()).isFalse();
+            assertThat(worker.getName()).startsWith("media-upload-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void runsTheUploadOnTheCallerWhenPoolAndQueueAreFull() throws InterruptedException {
+        MediaUploadExecutor executor = new MediaUploadExecutor(false, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try {
+            executor.supplyAsync(() -> {
+                started.countDown();
+                await(release);
+                return null;
+            });
+            started.await();
+            for (int i = 0; i < 4; i++) {
+                executor.supplyAsync(() -> null);
+            }
+
+            CompletableFuture<Thread> overflow = executor.supplyAsync(Thread::currentThread);
+
+            assertThat(overflow).isDone();
+            assertThat(overflow.join()).isSameAs(Thread.currentThread());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
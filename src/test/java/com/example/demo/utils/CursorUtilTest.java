@@ -0,0 +1,40 @@
+package com.example.demo.utils;
+
+import com.example.demo.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorUtilTest {
+
+    @Test
+    void decodeReturnsWhatWasEncoded() {
+        CursorUtil.Cursor cursor = CursorUtil.decode(CursorUtil.encode(1234, 56));
+
+        assertThat(cursor).isEqualTo(new CursorUtil.Cursor(1234, 56));
+    }
+
+    @Test
+    void roundTripsNegativeAndExtremeValues() {
+        assertThat(CursorUtil.decode(CursorUtil.encode(-3, Long.MAX_VALUE)))
+                .isEqualTo(new CursorUtil.Cursor(-3, Long.MAX_VALUE));
+        assertThat(CursorUtil.decode(CursorUtil.encode(Long.MIN_VALUE, 0)))
+                .isEqualTo(new CursorUtil.Cursor(Long.MIN_VALUE, 0));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        assertThat(CursorUtil.encode(Long.MAX_VALUE, Long.MAX_VALUE)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not base64!", "MTIz", "YWJjOmRlZg"})
+    void rejectsMalformedCursors(String cursor) {
+        assertThatThrownBy(() -> CursorUtil.decode(cursor))
+                .isInstanceOf(InvalidDataException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.utils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+    private static final int ACCESS_EXPIRY = 60_000;
+
+    private final JwtUtil jwtUtil = new JwtUtil();
+    private final UserDetails alice = User.withUsername("alice").password("secret").authorities("ROLE_USER", "GET_USER").build();
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(jwtUtil, "accessExpiryTime", ACCESS_EXPIRY);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiryTime", 120_000);
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", key('a'));
+        ReflectionTestUtils.setField(jwtUtil, "refreshKey", key('r'));
+        ReflectionTestUtils.setField(jwtUtil, "issuer", "https://issuer.example.com");
+        jwtUtil.init();
+    }
+
+    @Test
+    void validateTokenReturnsAllClaimsFromOneParse() {
+        TokenClaims claims = jwtUtil.validateToken(jwtUtil.generateAccessToken(alice), TokenType.ACCESS_TOKEN);
+
+        assertThat(claims.username()).isEqualTo("alice");
+        assertThat(claims.scope().split(" ")).containsExactlyInAnyOrder("ROLE_USER", "GET_USER");
+        assertThat(claims.expiration()).isCloseTo(new Date(System.currentTimeMillis() + ACCESS_EXPIRY), 5_000);
+    }
+
+    @Test
+    void eachTokenTypeIsVerifiedWithItsOwnKey() {
+        String access = jwtUtil.generateAccessToken(alice);
+        String refresh = jwtUtil.generateRefreshToken(alice);
+
+        assertThat(jwtUtil.validateToken(refresh, TokenType.REFRESH_TOKEN).username()).isEqualTo("alice");
+        assertThatThrownBy(() -> jwtUtil.validateToken(access, TokenType.REFRESH_TOKEN)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtUtil.validateToken(refresh, TokenType.ACCESS_TOKEN)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        ReflectionTestUtils.setField(jwtUtil, "accessExpiryTime", -1_000);
+        String expired = jwtUtil.generateAccessToken(alice);
+
+        assertThatThrownBy(() -> jwtUtil.validateToken(expired, TokenType.ACCESS_TOKEN))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = jwtUtil.generateAccessToken(alice);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtUtil.validateToken(tampered, TokenType.ACCESS_TOKEN)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void isValidTokenChecksTheSubject() {
+        String token = jwtUtil.generateAccessToken(alice);
+        UserDetails bob = User.withUsername("bob").password("secret").authorities("ROLE_USER").build();
+
+        assertThat(jwtUtil.isValidToken(token, TokenType.ACCESS_TOKEN, alice)).isTrue();
+        assertThat(jwtUtil.isValidToken(token, TokenType.ACCESS_TOKEN, bob)).isFalse();
+    }
+
+    private static String key(char fill) {
+        return Base64.getEncoder().encodeToString(String.valueOf(fill).repeat(32).getBytes());
+    }
+}